@@ -0,0 +1,115 @@
+package aibadcode;
+
+import java.security.Key;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.AddressException;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import javax.sql.DataSource;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+/**
+ * <h2>ConcurrentInvoiceService</h2>
+ *
+ * <p>Drop-in, thread-safe counterpart of the legacy {@link InvoiceService}:
+ * same public methods, but safe to call from many request threads.</p>
+ *
+ * <ul>
+ *   <li>Each call borrows its own {@link Connection} from a pooled
+ *       {@link DataSource} instead of sharing one.</li>
+ *   <li>Every {@link PreparedStatement} / {@link ResultSet} is closed by
+ *       try-with-resources – no more leaked cursors.</li>
+ *   <li>The cache is a {@link ConcurrentHashMap}; the poller uses
+ *       {@code putIfAbsent} so it never overwrites a fresher entry.</li>
+ *   <li>Secret and mail session are injected, not hard-coded.</li>
+ * </ul>
+ *
+ * <p>Only the concurrency problems are fixed here; the SRP split lives in
+ * {@code aibadcode.newinvoice}.</p>
+ */
+public class ConcurrentInvoiceService {
+
+    private static final String INSERT =
+            "INSERT INTO invoices (id, amount, status, created) VALUES (?,?,?,?)";
+    private static final String SELECT_UNPAID =
+            "SELECT id, amount FROM invoices WHERE status='UNPAID'";
+
+    private final DataSource                 dataSource;
+    private final Key                        jwtKey;
+    private final Session                    mailSession;
+    private final InternetAddress[]          recipients;
+    private final ConcurrentMap<Long, Invoice> inMemoryCache = new ConcurrentHashMap<>();
+
+    public ConcurrentInvoiceService(DataSource dataSource, Key jwtKey, Session mailSession) {
+        this.dataSource  = Objects.requireNonNull(dataSource, "dataSource");
+        this.jwtKey      = Objects.requireNonNull(jwtKey, "jwtKey");
+        this.mailSession = mailSession;
+        try {
+            this.recipients = InternetAddress.parse("customer@example.com", false);
+        } catch (AddressException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /** Creates a new invoice and sends an email right away. */
+    public void createInvoice(Invoice invoice) throws Exception {
+        try (Connection c = dataSource.getConnection();
+             PreparedStatement ps = c.prepareStatement(INSERT)) {
+            ps.setLong(1, invoice.id());
+            ps.setBigDecimal(2, invoice.amount());
+            ps.setString(3, "UNPAID");
+            ps.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+            ps.executeUpdate();
+        }
+        inMemoryCache.put(invoice.id(), invoice);
+        sendEmail(invoice);
+    }
+
+    /** Returns a JWT for the client. */
+    public String issueToken(String clientId) {
+        return Jwts.builder()
+                   .setSubject(clientId)
+                   .signWith(jwtKey, SignatureAlgorithm.HS256)
+                   .compact();
+    }
+
+    /** Loads unpaid invoices into the cache; safe to run alongside requests. */
+    public void pollUnpaidInvoices() throws SQLException {
+        try (Connection c = dataSource.getConnection();
+             PreparedStatement ps = c.prepareStatement(SELECT_UNPAID);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                long id = rs.getLong("id");
+                inMemoryCache.putIfAbsent(id, new Invoice(id, rs.getBigDecimal("amount")));
+            }
+        }
+    }
+
+    int cachedInvoices() {
+        return inMemoryCache.size();
+    }
+
+    /** Protected so tests and the load harness can stub SMTP. */
+    protected void sendEmail(Invoice invoice) throws MessagingException {
+        Message msg = new MimeMessage(mailSession);
+        msg.setRecipients(Message.RecipientType.TO, recipients);
+        msg.setSubject("Invoice Created " + invoice.id());
+        msg.setText("Amount due: " + invoice.amount());
+        Transport.send(msg);
+    }
+}
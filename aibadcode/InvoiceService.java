@@ -38,6 +38,9 @@ public class InvoiceService {
     /** ⚠️  Hard-coded secret — bad! */
     private static final String JWT_SECRET = "mySecretKey";
 
+    /* ==== EMAIL (address parsed once) ==== */
+    private static final InternetAddress[] RECIPIENTS = parse("customer@example.com");
+
     /* ==== STATE (shared, non-thread-safe) ==== */
     private final Map<Long, Invoice> inMemoryCache = new HashMap<>();
     private Connection connection;   // single connection reused by all threads
@@ -46,6 +49,16 @@ public class InvoiceService {
         connection = DriverManager.getConnection(JDBC_URL, DB_USER, DB_PASS);
     }
 
+    /** Seam for {@link InvoiceServiceLoadHarness}: run against any database. */
+    InvoiceService(Connection connection) {
+        this.connection = connection;
+    }
+
+    /** Seam for {@link InvoiceServiceLoadHarness}: expose lost cache updates. */
+    int cachedInvoices() {
+        return inMemoryCache.size();
+    }
+
     /** Creates a new invoice and sends an email right away. */
     public void createInvoice(Invoice invoice) throws Exception {
         PreparedStatement ps = connection.prepareStatement(
@@ -79,14 +92,21 @@ public class InvoiceService {
         }
     }
 
-    /* --- helper that mixes infra + domain logic --- */
-    private void sendEmail(Invoice invoice) throws MessagingException {
+    /* --- helper that mixes infra + domain logic (protected so the harness can stub SMTP) --- */
+    protected void sendEmail(Invoice invoice) throws MessagingException {
         Session session = Session.getDefaultInstance(new Properties(), null);
         Message msg = new MimeMessage(session);
-        msg.setRecipients(Message.RecipientType.TO,
-                InternetAddress.parse("customer@example.com", false));
+        msg.setRecipients(Message.RecipientType.TO, RECIPIENTS);
         msg.setSubject("Invoice Created " + invoice.id());
         msg.setText("Amount due: " + invoice.amount());
         Transport.send(msg);
     }
+
+    private static InternetAddress[] parse(String addresses) {
+        try {
+            return InternetAddress.parse(addresses, false);
+        } catch (AddressException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
 }
@@ -0,0 +1,167 @@
+package aibadcode;
+
+import java.math.BigDecimal;
+import java.security.Key;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * <h2>InvoiceServiceLoadHarness</h2>
+ *
+ * <p>Hammers the legacy {@link InvoiceService} and the pooled
+ * {@link ConcurrentInvoiceService} with the same workload on in-memory H2
+ * and prints throughput, failed calls and cache drift (cache size vs. rows
+ * written – non-zero means the unsynchronised {@code HashMap} lost or
+ * corrupted entries) per thread count.  SMTP is stubbed out in both; a
+ * first, unprinted pass warms up the JIT.</p>
+ *
+ * <p>Workload per thread: {@value #OPS_PER_THREAD} × {@code createInvoice},
+ * plus {@code pollUnpaidInvoices} every {@value #POLL_EVERY} calls.</p>
+ *
+ * <pre>
+ *   java -cp &lt;classpath&gt; aibadcode.InvoiceServiceLoadHarness
+ * </pre>
+ */
+public final class InvoiceServiceLoadHarness {
+
+    private static final int        OPS_PER_THREAD = 2_000;
+    private static final int        POLL_EVERY     = 200;
+    private static final int[]      THREADS        = { 1, 2, 4, 8, 16 };
+    private static final BigDecimal AMOUNT         = new BigDecimal("42.50");
+
+    private InvoiceServiceLoadHarness() { }
+
+    /** One call against the service under test. */
+    private interface Op {
+        void run(long invoiceId) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Key key = new SecretKeySpec(new byte[32], "HmacSHA256");
+
+        for (int pass = 0; pass < 2; pass++) {
+            boolean report = pass == 1;
+            if (report) {
+                System.out.printf("%-10s %7s %12s %8s %10s%n",
+                        "variant", "threads", "ops/s", "errors", "cacheDrift");
+            }
+            for (int threads : THREADS) {
+                measure(pass, threads, key, report);
+            }
+        }
+    }
+
+    private static void measure(int pass, int threads, Key key, boolean report) throws Exception {
+        String url = "jdbc:h2:mem:legacy" + pass + "_" + threads + ";DB_CLOSE_DELAY=-1";
+        try (Connection shared = DriverManager.getConnection(url, "sa", "")) {
+            try {
+                createSchema(shared);
+                InvoiceService legacy = new InvoiceService(shared) {
+                    @Override protected void sendEmail(Invoice invoice) { }
+                };
+                long[] r = run(threads, id -> {
+                    legacy.createInvoice(new Invoice(id, AMOUNT));
+                    if (id % POLL_EVERY == 0) legacy.pollUnpaidInvoices();
+                });
+                if (report) print("legacy", threads, r, legacy.cachedInvoices());
+            } finally {
+                shutdown(shared);
+            }
+        }
+
+        String pooledUrl = "jdbc:h2:mem:pooled" + pass + "_" + threads + ";DB_CLOSE_DELAY=-1";
+        HikariConfig cfg = new HikariConfig();
+        cfg.setJdbcUrl(pooledUrl);
+        cfg.setUsername("sa");
+        cfg.setPassword("");
+        cfg.setMaximumPoolSize(threads);
+        cfg.setPoolName("harness-" + pass + "-" + threads);
+        try (HikariDataSource ds = new HikariDataSource(cfg)) {
+            try (Connection c = ds.getConnection()) {
+                createSchema(c);
+            }
+            ConcurrentInvoiceService pooled = new ConcurrentInvoiceService(ds, key, null) {
+                @Override protected void sendEmail(Invoice invoice) { }
+            };
+            long[] r = run(threads, id -> {
+                pooled.createInvoice(new Invoice(id, AMOUNT));
+                if (id % POLL_EVERY == 0) pooled.pollUnpaidInvoices();
+            });
+            if (report) print("pooled", threads, r, pooled.cachedInvoices());
+        } finally {
+            // after the pool is closed, so no pooled connection outlives the database
+            try (Connection c = DriverManager.getConnection(pooledUrl, "sa", "")) {
+                shutdown(c);
+            }
+        }
+    }
+
+    /** @return { elapsed nanos, errors } */
+    private static long[] run(int threads, Op op) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicLong ids = new AtomicLong();
+        LongAdder errors = new LongAdder();
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            done.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    try {
+                        op.run(ids.incrementAndGet());
+                    } catch (Exception | Error ex) {
+                        errors.increment();
+                    }
+                }
+                return null;
+            }));
+        }
+        long t0 = System.nanoTime();
+        start.countDown();
+        for (Future<?> f : done) f.get();
+        long elapsed = System.nanoTime() - t0;
+        pool.shutdown();
+        return new long[] { elapsed, errors.sum() };
+    }
+
+    private static void print(String variant, int threads, long[] r, int cached) {
+        long ops = (long) threads * OPS_PER_THREAD;
+        long ok  = ops - r[1];
+        System.out.printf("%-10s %7d %12.0f %8d %10d%n",
+                variant, threads, ok / (r[0] / 1e9), r[1], Math.abs(ok - cached));
+    }
+
+    /**
+     * Drop the in-memory database: {@code DB_CLOSE_DELAY=-1} keeps it alive
+     * after its last connection closes, so every run would otherwise leave
+     * its data in the JVM.
+     */
+    private static void shutdown(Connection c) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.execute("SHUTDOWN");
+        }
+    }
+
+    private static void createSchema(Connection c) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.execute("CREATE TABLE IF NOT EXISTS invoices (" +
+                       "id BIGINT PRIMARY KEY, amount DECIMAL(19,2), " +
+                       "status VARCHAR(16), created TIMESTAMP)");
+        }
+    }
+}
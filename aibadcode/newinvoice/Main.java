@@ -1,39 +1,115 @@
 /*  Main.java  */
 package aibadcode.newinvoice;
 
+import java.lang.management.ManagementFactory;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import javax.sql.DataSource;
 
 import aibadcode.newinvoice.adapter.caching.InMemoryInvoiceCache;
+import aibadcode.newinvoice.adapter.jdbc.JdbcInvoiceRepository;
+import aibadcode.newinvoice.adapter.lazy.LazyInvoiceCache;
+import aibadcode.newinvoice.adapter.lazy.LazyInvoiceRepository;
+import aibadcode.newinvoice.adapter.lazy.LazyMailService;
+import aibadcode.newinvoice.adapter.lazy.LazyTokenService;
+import aibadcode.newinvoice.adapter.mail.JavaMailService;
 import aibadcode.newinvoice.adapter.notification.ConsoleMailService;
 import aibadcode.newinvoice.adapter.persistence.InMemoryInvoiceRepository;
+import aibadcode.newinvoice.adapter.security.JwtTokenService;
 import aibadcode.newinvoice.adapter.security.StaticTokenService;
 import aibadcode.newinvoice.model.Invoice;
+import aibadcode.newinvoice.port.InvoiceRepository;
+import aibadcode.newinvoice.port.MailService;
+import aibadcode.newinvoice.port.TokenService;
 import aibadcode.newinvoice.service.InvoiceService;
+import aibadcode.newinvoice.util.DataSourceFactory;
+import aibadcode.newinvoice.util.JavaMailSessionFactory;
+import aibadcode.newinvoice.util.KeyLoader;
 
 /**
  * Minimal wiring class to show architecture in action.
  *
  * <p>Swap any adapter below and watch <b>Open-Closed</b> &amp;
  * <b>Dependency-Inversion</b> principles at work.</p>
+ *
+ * <p>Real adapters are picked up from the environment
+ * (<code>JDBC_URL</code>, <code>SMTP_HOST</code>, <code>JWT_SECRET_B64</code>);
+ * otherwise the in-memory / console / static ones are used.  Run with
+ * <code>--fast-start</code> (or <code>FAST_START=true</code>) to wrap every
+ * adapter in a lazy proxy and warm the connection pool in the background.</p>
  */
 public final class Main {
     public static void main(String[] args) {
 
-        InvoiceService svc = new InvoiceService(
-            new InMemoryInvoiceRepository(),     // persistence
-            new InMemoryInvoiceCache(),          // caching
-            new ConsoleMailService(),            // notification
-            new StaticTokenService()             // security
-        );
+        boolean fastStart = Arrays.asList(args).contains("--fast-start")
+                || "true".equalsIgnoreCase(System.getenv("FAST_START"));
+
+        InvoiceService svc = fastStart ? fastStartWiring() : eagerWiring();
 
         Invoice inv = new Invoice(1L, new BigDecimal("42.50"),
                                   "UNPAID", LocalDateTime.now());
         svc.createInvoice(inv);
+        long firstServed = System.currentTimeMillis();
+
+        long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.println("Startup to first served invoice: " +
+                (firstServed - jvmStart) + " ms (" +
+                (fastStart ? "fast-start" : "eager") + ")");
 
         System.out.println("Issued token: " +
                 svc.issueApiToken("client-xyz"));
         System.out.println("Unpaid invoices: " +
                 svc.listUnpaid().size());
     }
+
+    /** Original wiring – every adapter is built before the first request. */
+    private static InvoiceService eagerWiring() {
+        return new InvoiceService(
+            repository(false),                   // persistence
+            new InMemoryInvoiceCache(),          // caching
+            mailService(),                       // notification
+            tokenService()                       // security
+        );
+    }
+
+    /** Lazy proxies; only the repository is warmed up ahead of time. */
+    private static InvoiceService fastStartWiring() {
+        LazyInvoiceRepository repo = new LazyInvoiceRepository(() -> repository(true));
+        repo.warmUpAsync();
+        return new InvoiceService(
+            repo,
+            new LazyInvoiceCache(InMemoryInvoiceCache::new),
+            new LazyMailService(Main::mailService),
+            new LazyTokenService(Main::tokenService)
+        );
+    }
+
+    private static InvoiceRepository repository(boolean fastStart) {
+        if (System.getenv("JDBC_URL") == null) {
+            return new InMemoryInvoiceRepository();
+        }
+        DataSource ds = DataSourceFactory.fromEnv(fastStart);
+        if (fastStart) {
+            DataSourceFactory.warmUpAsync(ds);
+        }
+        return new JdbcInvoiceRepository(ds);
+    }
+
+    private static MailService mailService() {
+        if (System.getenv("SMTP_HOST") == null) {
+            return new ConsoleMailService();
+        }
+        String from = System.getenv("MAIL_FROM");
+        return new JavaMailService(JavaMailSessionFactory.fromEnv(),
+                from == null ? "billing@example.com" : from);
+    }
+
+    private static TokenService tokenService() {
+        if (System.getenv("JWT_SECRET_B64") == null) {
+            return new StaticTokenService();
+        }
+        return new JwtTokenService(KeyLoader.loadHs256Key(), 60);
+    }
 }
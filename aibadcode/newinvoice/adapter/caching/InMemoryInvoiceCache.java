@@ -1,28 +1,54 @@
 /*  adapter/caching/InMemoryInvoiceCache.java  */
 package aibadcode.newinvoice.adapter.caching;
 
-import java.util.HashMap;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
+import aibadcode.newinvoice.adapter.snapshot.InvoiceSnapshotFile;
+import aibadcode.newinvoice.adapter.snapshot.Snapshottable;
 import aibadcode.newinvoice.model.Invoice;
 import aibadcode.newinvoice.port.InvoiceCache;
 
 /**
- * HashMap-based cache adapter.
+ * ConcurrentHashMap-based cache adapter.
  *
  * <p>Demonstrates the <em>Decorator</em> pattern conceptually (wraps data
  * behind a cache without altering repository interface).</p>
  *
+ * <p>{@link Snapshottable}, so a restart can start warm via
+ * {@link #fromSnapshot(Path)}.</p>
+ *
  * <b>SOLID</b>: OCP (swap with Redis later) &amp; DIP.
  */
-public class InMemoryInvoiceCache implements InvoiceCache {
+public class InMemoryInvoiceCache implements InvoiceCache, Snapshottable {
+
+    private final Map<Long, Invoice> cache;
+
+    public InMemoryInvoiceCache() { this(new ConcurrentHashMap<>()); }
+
+    private InMemoryInvoiceCache(ConcurrentHashMap<Long, Invoice> cache) {
+        this.cache = cache;
+    }
 
-    private final Map<Long, Invoice> cache = new HashMap<>();
+    public static InMemoryInvoiceCache fromSnapshot(Path snapshot) {
+        return new InMemoryInvoiceCache(InvoiceSnapshotFile.read(snapshot));
+    }
 
     @Override public void put(Invoice inv) { cache.put(inv.getId(), inv); }
 
     @Override public Optional<Invoice> get(long id) {
         return Optional.ofNullable(cache.get(id));
     }
+
+    @Override public void evictAll(Collection<Long> ids) {
+        for (Long id : ids) cache.remove(id);
+    }
+
+    @Override public Collection<Invoice> snapshotView() {
+        return Collections.unmodifiableCollection(cache.values());
+    }
 }
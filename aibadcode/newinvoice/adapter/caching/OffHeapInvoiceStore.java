@@ -0,0 +1,175 @@
+/*  adapter/caching/OffHeapInvoiceStore.java  */
+package aibadcode.newinvoice.adapter.caching;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import aibadcode.newinvoice.adapter.codec.InvoiceCodec;
+import aibadcode.newinvoice.model.Invoice;
+
+/**
+ * <h2>OffHeapInvoiceStore – Fixed-capacity invoice table outside the heap</h2>
+ *
+ * <p>Invoices live as 32-byte {@link InvoiceCodec} records in one direct
+ * {@link ByteBuffer}; the record's spare byte holds the clock's
+ * <em>referenced</em> bit.</p>
+ *
+ * <p>An open-addressing (linear probing, backward-shift delete) table of slot
+ * numbers, also off-heap, maps invoice id → slot.  When every slot is taken
+ * a <em>clock</em> hand sweeps the records: referenced ones get a second
+ * chance, the first unreferenced one is evicted.  The GC never sees the
+ * cached data, only this object and a tiny status dictionary.</p>
+ *
+ * <p><b>Not thread-safe</b> – {@link TieredInvoiceCache} guards it.</p>
+ */
+public final class OffHeapInvoiceStore {
+
+    private static final int  RECORD  = InvoiceCodec.RECORD_SIZE;
+    private static final int  EMPTY   = 0;            // index entries hold slot + 1
+    private static final long MIX     = 0x9E3779B97F4A7C15L;
+
+    private static final int OFF_REF = InvoiceCodec.OFF_SPARE;
+
+    private final int        capacity;
+    private final ByteBuffer records;
+    private final IntBuffer  index;
+    private final int        mask;
+    private final IntBuffer  free;            // stack of released slots
+    private int freeTop;
+    private int nextUnused;                   // slots never handed out yet
+    private int hand;                         // clock hand
+    private int size;
+    private long evictions;
+
+    private final Map<String, Byte> statusCodes = new HashMap<>();
+    private final String[]          statuses    = new String[256];
+    private int statusCount;
+
+    /** @param capacity maximum number of invoices held */
+    public OffHeapInvoiceStore(int capacity) {
+        if (capacity <= 0 || (long) capacity * RECORD > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("capacity out of range: " + capacity);
+        }
+        int tableSize = Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+        this.capacity = capacity;
+        this.records  = ByteBuffer.allocateDirect(capacity * RECORD);
+        this.index    = ByteBuffer.allocateDirect(tableSize * 4).asIntBuffer();
+        this.mask     = tableSize - 1;
+        this.free     = ByteBuffer.allocateDirect(capacity * 4).asIntBuffer();
+    }
+
+    /**
+     * Insert or replace.  Invoices that cannot be encoded (amount beyond 63
+     * bits, more than 256 distinct statuses) are simply not cached.
+     *
+     * @return {@code false} if the invoice was not stored
+     */
+    public boolean put(Invoice inv) {
+        if (!InvoiceCodec.amountFits(inv.getAmount())) return false;
+        Byte code = statusCode(inv.getStatus());
+        if (code == null) return false;
+
+        int pos = find(inv.getId());
+        int slot;
+        if (index.get(pos) != EMPTY) {
+            slot = index.get(pos) - 1;
+        } else {
+            slot = allocate();
+            pos  = find(inv.getId());             // eviction may have shifted entries
+            index.put(pos, slot + 1);
+            size++;
+        }
+        int base = slot * RECORD;
+        InvoiceCodec.write(records, base, inv, code & 0xFF);
+        records.put(base + OFF_REF, (byte) 1);
+        return true;
+    }
+
+    /** @return the decoded invoice, or {@code null}; marks the record referenced */
+    public Invoice get(long id) {
+        int entry = index.get(find(id));
+        if (entry == EMPTY) return null;
+        int base = (entry - 1) * RECORD;
+        records.put(base + OFF_REF, (byte) 1);
+        return InvoiceCodec.read(records, base, statuses);
+    }
+
+    /** Remove and return an entry, e.g. to promote it to a hotter tier. */
+    public Invoice remove(long id) {
+        int pos = find(id);
+        int entry = index.get(pos);
+        if (entry == EMPTY) return null;
+        Invoice inv = InvoiceCodec.read(records, (entry - 1) * RECORD, statuses);
+        deleteAt(pos);
+        free.put(freeTop++, entry - 1);
+        size--;
+        return inv;
+    }
+
+    public int  size()      { return size; }
+    public int  capacity()  { return capacity; }
+    public long evictions() { return evictions; }
+
+    /* ------------------------------------------------------------------ */
+
+    private int allocate() {
+        if (freeTop > 0)             return free.get(--freeTop);
+        if (nextUnused < capacity)   return nextUnused++;
+        while (true) {                                  // clock sweep
+            int slot = hand;
+            hand = (hand + 1) % capacity;
+            int base = slot * RECORD;
+            if (records.get(base + OFF_REF) != 0) {
+                records.put(base + OFF_REF, (byte) 0);
+                continue;
+            }
+            deleteAt(find(InvoiceCodec.id(records, base)));
+            size--;
+            evictions++;
+            return slot;
+        }
+    }
+
+    /** Index position holding {@code id}, or the empty position where it would go. */
+    private int find(long id) {
+        int pos = home(id);
+        while (true) {
+            int entry = index.get(pos);
+            if (entry == EMPTY || InvoiceCodec.id(records, (entry - 1) * RECORD) == id) return pos;
+            pos = (pos + 1) & mask;
+        }
+    }
+
+    private int home(long id) {
+        return (int) ((id * MIX) >>> 32) & mask;
+    }
+
+    /** Backward-shift deletion keeps probe chains intact without tombstones. */
+    private void deleteAt(int hole) {
+        int j = hole;
+        while (true) {
+            j = (j + 1) & mask;
+            int entry = index.get(j);
+            if (entry == EMPTY) break;
+            int h = home(InvoiceCodec.id(records, (entry - 1) * RECORD));
+            boolean movable = (j > hole) ? (h <= hole || h > j) : (h <= hole && h > j);
+            if (movable) {
+                index.put(hole, entry);
+                hole = j;
+            }
+        }
+        index.put(hole, EMPTY);
+    }
+
+    private Byte statusCode(String status) {
+        Byte code = statusCodes.get(status);
+        if (code == null && statusCount < statuses.length) {
+            code = (byte) statusCount;
+            statuses[statusCount++] = status;
+            statusCodes.put(status, code);
+        }
+        return code;
+    }
+}
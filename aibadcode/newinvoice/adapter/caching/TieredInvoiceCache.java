@@ -0,0 +1,88 @@
+/*  adapter/caching/TieredInvoiceCache.java  */
+package aibadcode.newinvoice.adapter.caching;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import aibadcode.newinvoice.model.Invoice;
+import aibadcode.newinvoice.port.InvoiceCache;
+
+/**
+ * <h2>TieredInvoiceCache – Small hot L1 on-heap, large L2 off-heap</h2>
+ *
+ * <ul>
+ *   <li><b>L1</b> – access-ordered {@link LinkedHashMap} (LRU) holding live
+ *       {@link Invoice} objects.  Its least-recently-used entry is
+ *       <em>demoted</em> to L2 when L1 overflows.</li>
+ *   <li><b>L2</b> – {@link OffHeapInvoiceStore}: fixed-size binary records in
+ *       a direct buffer with clock eviction, invisible to the GC.  A hit
+ *       <em>promotes</em> the entry back into L1.</li>
+ * </ul>
+ *
+ * <p>An entry lives in exactly one tier.  One monitor guards both; every
+ * operation is O(1).</p>
+ *
+ * <b>OCP</b> – another {@link InvoiceCache} adapter; the service is unchanged.
+ */
+public class TieredInvoiceCache implements InvoiceCache {
+
+    private final OffHeapInvoiceStore l2;
+    private final Map<Long, Invoice>  l1;
+
+    private long l1Hits, l2Hits, misses;
+
+    /**
+     * @param l1Capacity invoices kept as objects on the heap
+     * @param l2Capacity invoices kept off-heap (32 bytes each)
+     */
+    public TieredInvoiceCache(int l1Capacity, int l2Capacity) {
+        this.l2 = new OffHeapInvoiceStore(l2Capacity);
+        this.l1 = new LinkedHashMap<Long, Invoice>(l1Capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<Long, Invoice> eldest) {
+                if (size() <= l1Capacity) return false;
+                l2.put(eldest.getValue());             // demote
+                return true;
+            }
+        };
+    }
+
+    @Override public synchronized void put(Invoice inv) {
+        l2.remove(inv.getId());
+        l1.put(inv.getId(), inv);
+    }
+
+    @Override public synchronized Optional<Invoice> get(long id) {
+        Invoice inv = l1.get(id);
+        if (inv != null) {
+            l1Hits++;
+            return Optional.of(inv);
+        }
+        inv = l2.remove(id);
+        if (inv != null) {
+            l2Hits++;
+            l1.put(id, inv);                           // promote
+            return Optional.of(inv);
+        }
+        misses++;
+        return Optional.empty();
+    }
+
+    @Override public synchronized void evictAll(Collection<Long> ids) {
+        for (Long id : ids) {
+            if (l1.remove(id) == null) l2.remove(id);
+        }
+    }
+
+    /* ---------------------------------------------------------------- */
+    /* Metrics                                                          */
+    /* ---------------------------------------------------------------- */
+
+    public synchronized long l1Hits()      { return l1Hits; }
+    public synchronized long l2Hits()      { return l2Hits; }
+    public synchronized long misses()      { return misses; }
+    public synchronized int  l1Size()      { return l1.size(); }
+    public synchronized int  l2Size()      { return l2.size(); }
+    public synchronized long l2Evictions() { return l2.evictions(); }
+}
@@ -0,0 +1,173 @@
+/*  adapter/codec/InvoiceCodec.java  */
+package aibadcode.newinvoice.adapter.codec;
+
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+import aibadcode.newinvoice.model.Invoice;
+
+/**
+ * <h2>InvoiceCodec – Fixed-layout binary encoding</h2>
+ *
+ * <p>Every invoice takes exactly {@value #RECORD_SIZE} bytes (big-endian):</p>
+ * <pre>
+ *   0  id                     long
+ *   8  unscaled amount        long
+ *   16 created (epoch millis) long, UTC
+ *   24 amount scale           byte
+ *   25 status code            byte   (index into a status dictionary)
+ *   26 spare                  byte   (written as 0; free for the record's holder)
+ *   27 reserved               byte
+ *   28 created nano-of-milli  int
+ * </pre>
+ *
+ * <p>Records can be decoded into {@link Invoice}s, in bulk, or read in place
+ * through an {@link InvoiceView} flyweight without allocating anything.
+ * Works on heap, direct and memory-mapped buffers alike.</p>
+ *
+ * <p>This is the one invoice record layout of the application: snapshots
+ * and the off-heap cache tier store the same records through the static
+ * {@link #write} / {@link #read} methods, with a dictionary of their own, and
+ * {@link #amountFits} is the single range check for amounts.</p>
+ *
+ * <p>Immutable and thread-safe; share one instance per status vocabulary.</p>
+ */
+public final class InvoiceCodec {
+
+    public static final int RECORD_SIZE = 32;
+
+    static final int OFF_ID      = 0;
+    static final int OFF_AMOUNT  = 8;
+    static final int OFF_CREATED = 16;
+    static final int OFF_SCALE   = 24;
+    static final int OFF_STATUS  = 25;
+    /** Byte left to the holder of a record, e.g. for a flag; {@link #write} zeroes it. */
+    public static final int OFF_SPARE = 26;
+    static final int OFF_NANOS   = 28;
+
+    /** Codec for the statuses the application uses today. */
+    public static final InvoiceCodec DEFAULT = new InvoiceCodec("UNPAID", "PAID");
+
+    private final String[]             statuses;
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    /** @param statuses status vocabulary; position = code (at most 256) */
+    public InvoiceCodec(String... statuses) {
+        if (statuses.length == 0 || statuses.length > 256) {
+            throw new IllegalArgumentException("1..256 statuses required");
+        }
+        this.statuses = statuses.clone();
+        for (int i = 0; i < statuses.length; i++) codes.put(statuses[i], i);
+    }
+
+    /* ------------------------------------------------------------------ */
+    /* Single record                                                      */
+    /* ------------------------------------------------------------------ */
+
+    /** Write {@code inv} at absolute {@code offset}; buffer position is untouched. */
+    public void encode(Invoice inv, ByteBuffer dst, int offset) {
+        Integer code = codes.get(inv.getStatus());
+        if (code == null) {
+            throw new IllegalArgumentException("status not in codec dictionary: " + inv.getStatus());
+        }
+        write(dst, offset, inv, code);
+    }
+
+    /** Materialise the record at absolute {@code offset}. */
+    public Invoice decode(ByteBuffer src, int offset) {
+        return read(src, offset, statuses);
+    }
+
+    /* ------------------------------------------------------------------ */
+    /* Layout, for holders that keep their own status dictionary          */
+    /* ------------------------------------------------------------------ */
+
+    /** Whether {@code amount} fits a record: unscaled value within 63 bits, scale within a byte. */
+    public static boolean amountFits(BigDecimal amount) {
+        return amount.unscaledValue().bitLength() <= 63 && amount.scale() == (byte) amount.scale();
+    }
+
+    /**
+     * Write {@code inv} at absolute {@code offset} with the given status code.
+     *
+     * @throws IllegalArgumentException if the amount does not {@link #amountFits fit}
+     *                                  or the code is not 0..255
+     */
+    public static void write(ByteBuffer dst, int offset, Invoice inv, int statusCode) {
+        BigDecimal amount = inv.getAmount();
+        if (!amountFits(amount)) {
+            throw new IllegalArgumentException("amount out of range for invoice " + inv.getId());
+        }
+        if (statusCode < 0 || statusCode > 255) {
+            throw new IllegalArgumentException("status code out of range: " + statusCode);
+        }
+        LocalDateTime created = inv.getCreatedAt();
+        int nano = created.getNano();
+        dst.putLong(offset + OFF_ID, inv.getId())
+           .putLong(offset + OFF_AMOUNT, amount.unscaledValue().longValue())
+           .putLong(offset + OFF_CREATED, created.toEpochSecond(ZoneOffset.UTC) * 1000 + nano / 1_000_000)
+           .put(offset + OFF_SCALE, (byte) amount.scale())
+           .put(offset + OFF_STATUS, (byte) statusCode)
+           .putShort(offset + OFF_SPARE, (short) 0)
+           .putInt(offset + OFF_NANOS, nano % 1_000_000);
+    }
+
+    /** Materialise the record at absolute {@code offset}; codes index {@code statuses}. */
+    public static Invoice read(ByteBuffer src, int offset, String[] statuses) {
+        long millis = src.getLong(offset + OFF_CREATED);
+        return new Invoice(
+            src.getLong(offset + OFF_ID),
+            BigDecimal.valueOf(src.getLong(offset + OFF_AMOUNT), src.get(offset + OFF_SCALE)),
+            statuses[src.get(offset + OFF_STATUS) & 0xFF],
+            LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L),
+                    (int) Math.floorMod(millis, 1000L) * 1_000_000 + src.getInt(offset + OFF_NANOS),
+                    ZoneOffset.UTC));
+    }
+
+    /** The id of the record at absolute {@code offset}, without decoding the rest. */
+    public static long id(ByteBuffer src, int offset) {
+        return src.getLong(offset + OFF_ID);
+    }
+
+    /* ------------------------------------------------------------------ */
+    /* Bulk                                                               */
+    /* ------------------------------------------------------------------ */
+
+    /**
+     * Encode all of {@code src} at {@code dst}'s position and advance it.
+     *
+     * @throws BufferOverflowException if they do not fit
+     */
+    public void encodeAll(Invoice[] src, ByteBuffer dst) {
+        int need = src.length * RECORD_SIZE;
+        if (dst.remaining() < need) throw new BufferOverflowException();
+        int base = dst.position();
+        for (int i = 0; i < src.length; i++) encode(src[i], dst, base + i * RECORD_SIZE);
+        dst.position(base + need);
+    }
+
+    /** Decode every whole record between {@code src}'s position and limit, advancing it. */
+    public Invoice[] decodeAll(ByteBuffer src) {
+        Invoice[] out = new Invoice[src.remaining() / RECORD_SIZE];
+        int base = src.position();
+        for (int i = 0; i < out.length; i++) out[i] = decode(src, base + i * RECORD_SIZE);
+        src.position(base + out.length * RECORD_SIZE);
+        return out;
+    }
+
+    /** A reusable flyweight bound to this codec's dictionary. */
+    public InvoiceView view() {
+        return new InvoiceView(statuses);
+    }
+
+    /** @return the dictionary code of {@code status}, or -1 */
+    public int statusCode(String status) {
+        Integer code = codes.get(status);
+        return code == null ? -1 : code;
+    }
+}
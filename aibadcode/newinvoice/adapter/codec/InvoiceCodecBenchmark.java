@@ -0,0 +1,170 @@
+/*  adapter/codec/InvoiceCodecBenchmark.java  */
+package aibadcode.newinvoice.adapter.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import aibadcode.newinvoice.model.Invoice;
+
+/**
+ * <h2>InvoiceCodecBenchmark</h2>
+ *
+ * <p>JMH benchmark encoding and decoding the same batch of invoices with
+ * {@link InvoiceCodec} (heap and direct buffers, full decode and
+ * {@link InvoiceView} scan) and with Java serialization.  Every invocation
+ * handles the whole batch; scores are nanoseconds per record.</p>
+ *
+ * <p>{@link Invoice} is not {@link Serializable}, so the serialization side
+ * uses {@link SerializedInvoice}, a field-for-field mirror.  {@link #main}
+ * prints the bytes per record of both formats before running the suite:</p>
+ *
+ * <pre>
+ *   java -cp &lt;classpath&gt; aibadcode.newinvoice.adapter.codec.InvoiceCodecBenchmark
+ *   java -cp &lt;classpath&gt; org.openjdk.jmh.Main InvoiceCodecBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(InvoiceCodecBenchmark.RECORDS)
+public class InvoiceCodecBenchmark {
+
+    static final int RECORDS = 200_000;
+
+    /** Java-serialization counterpart of {@link Invoice}. */
+    private static final class SerializedInvoice implements Serializable {
+        private static final long serialVersionUID = 1L;
+        final long id; final BigDecimal amount; final String status; final LocalDateTime createdAt;
+
+        SerializedInvoice(Invoice i) {
+            this.id = i.getId(); this.amount = i.getAmount();
+            this.status = i.getStatus(); this.createdAt = i.getCreatedAt();
+        }
+    }
+
+    /** The batch in every form the cases start from; both buffers hold it encoded. */
+    @State(Scope.Thread)
+    public static class Batch {
+        final InvoiceCodec codec    = InvoiceCodec.DEFAULT;
+        final InvoiceView  view     = codec.view();
+        final int          unpaid   = codec.statusCode("UNPAID");
+        final Invoice[]    invoices = invoices(RECORDS);
+        SerializedInvoice[] mirrors;
+        ByteBuffer          heap;
+        ByteBuffer          direct;
+        byte[]              serialized;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            mirrors = new SerializedInvoice[RECORDS];
+            for (int i = 0; i < RECORDS; i++) mirrors[i] = new SerializedInvoice(invoices[i]);
+            heap   = ByteBuffer.allocate(RECORDS * InvoiceCodec.RECORD_SIZE);
+            direct = ByteBuffer.allocateDirect(RECORDS * InvoiceCodec.RECORD_SIZE);
+            codec.encodeAll(invoices, heap);
+            codec.encodeAll(invoices, direct);
+            serialized = serialize(mirrors);
+        }
+    }
+
+    @Benchmark
+    public int encodeHeap(Batch b) {
+        b.heap.clear();
+        b.codec.encodeAll(b.invoices, b.heap);
+        return b.heap.position();
+    }
+
+    @Benchmark
+    public int encodeDirect(Batch b) {
+        b.direct.clear();
+        b.codec.encodeAll(b.invoices, b.direct);
+        return b.direct.position();
+    }
+
+    @Benchmark
+    public Invoice[] decodeHeap(Batch b) {
+        b.heap.rewind();
+        return b.codec.decodeAll(b.heap);
+    }
+
+    @Benchmark
+    public long viewScanDirect(Batch b) {
+        long total = 0;
+        for (int i = 0; i < RECORDS; i++) {
+            b.view.at(b.direct, i);
+            if (b.view.statusCode() == b.unpaid) total += b.view.unscaledAmount();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public byte[] serializationWrite(Batch b) throws IOException {
+        return serialize(b.mirrors);
+    }
+
+    @Benchmark
+    public Object serializationRead(Batch b) throws IOException, ClassNotFoundException {
+        return deserialize(b.serialized);
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        SerializedInvoice[] mirrors = new SerializedInvoice[RECORDS];
+        Invoice[] invoices = invoices(RECORDS);
+        for (int i = 0; i < RECORDS; i++) mirrors[i] = new SerializedInvoice(invoices[i]);
+        System.out.printf("%d invoices, bytes/record: codec %d, java serialization %.1f%n",
+                          RECORDS, InvoiceCodec.RECORD_SIZE, (double) serialize(mirrors).length / RECORDS);
+
+        new Runner(new OptionsBuilder()
+                .include(InvoiceCodecBenchmark.class.getName() + "\\.")
+                .build()).run();
+    }
+
+    private static Invoice[] invoices(int n) {
+        Invoice[] invoices = new Invoice[n];
+        LocalDateTime t0 = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < n; i++) {
+            invoices[i] = new Invoice(i + 1L, BigDecimal.valueOf(1_000 + i % 100_000, 2),
+                                      i % 3 == 0 ? "PAID" : "UNPAID", t0.plusSeconds(i * 37L));
+        }
+        return invoices;
+    }
+
+    private static byte[] serialize(SerializedInvoice[] src) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(src);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static SerializedInvoice[] deserialize(byte[] src) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(src))) {
+            return (SerializedInvoice[]) in.readObject();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*  adapter/codec/InvoiceView.java  */
+package aibadcode.newinvoice.adapter.codec;
+
+import static aibadcode.newinvoice.adapter.codec.InvoiceCodec.*;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+/**
+ * <b>Flyweight</b>, read-only window onto one {@link InvoiceCodec} record.
+ *
+ * <p>{@link #wrap} re-points the same instance at another record, so a scan
+ * over millions of records allocates nothing; primitive getters read straight
+ * from the buffer.  Not thread-safe – one view per thread.</p>
+ */
+public final class InvoiceView {
+
+    private final String[] statuses;
+    private ByteBuffer buf;
+    private int        base;
+
+    InvoiceView(String[] statuses) { this.statuses = statuses; }
+
+    /** Point at the record starting at absolute {@code offset}. */
+    public InvoiceView wrap(ByteBuffer buffer, int offset) {
+        this.buf  = buffer;
+        this.base = offset;
+        return this;
+    }
+
+    /** Point at record number {@code index}. */
+    public InvoiceView at(ByteBuffer buffer, int index) {
+        return wrap(buffer, index * RECORD_SIZE);
+    }
+
+    public long   id()                { return buf.getLong(base + OFF_ID); }
+    public long   unscaledAmount()    { return buf.getLong(base + OFF_AMOUNT); }
+    public int    amountScale()       { return buf.get(base + OFF_SCALE); }
+    public long   createdEpochMillis(){ return buf.getLong(base + OFF_CREATED); }
+    public int    statusCode()        { return buf.get(base + OFF_STATUS) & 0xFF; }
+
+    /** Interned dictionary entry – no allocation. */
+    public String status()            { return statuses[statusCode()]; }
+
+    /** Allocates; prefer {@link #unscaledAmount()} in hot loops. */
+    public BigDecimal amount()        { return BigDecimal.valueOf(unscaledAmount(), amountScale()); }
+
+    @Override public String toString() {
+        return "InvoiceView{id=" + id() + ", amount=" + amount() + ", status=" + status() +
+               ", created=" + createdEpochMillis() + "}";
+    }
+}
@@ -0,0 +1,57 @@
+/*  adapter/export/ColumnarInvoiceFormat.java  */
+package aibadcode.newinvoice.adapter.export;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <h2>Columnar invoice export – file layout</h2>
+ *
+ * <pre>
+ *   file       : magic "INVC" (4) | version (4) | row group* | end marker (4 = 0)
+ *   row group  : rows (4) | dictionary | id | scale | amount | status | created
+ *   dictionary : entries (2), then len (2) + UTF-8 per status
+ *   column     : byte length (4) | payload
+ *     id       : zig-zag varint delta from the previous id
+ *     scale    : 1 byte per row
+ *     amount   : zig-zag varint unscaled value
+ *     status   : 1 byte dictionary code per row
+ *     created  : zig-zag varint delta of epoch millis (UTC)
+ * </pre>
+ *
+ * <p>Rows arrive ordered by id, so id and timestamp deltas are typically one
+ * or two bytes.  Each row group is self-contained, which keeps both writer
+ * and reader at constant memory.  Timestamps are stored at millisecond
+ * precision.</p>
+ */
+final class ColumnarInvoiceFormat {
+
+    static final int MAGIC          = 0x494E5643;   // "INVC"
+    static final int VERSION        = 1;
+    static final int ROWS_PER_GROUP = 64 * 1024;
+    static final int COLUMNS        = 5;
+    static final int MAX_VARINT     = 10;
+    static final int MAX_STATUSES   = 256;
+
+    private ColumnarInvoiceFormat() { }
+
+    static void putVarLong(ByteBuffer b, long v) {
+        long z = (v << 1) ^ (v >> 63);
+        while ((z & ~0x7FL) != 0) {
+            b.put((byte) ((z & 0x7F) | 0x80));
+            z >>>= 7;
+        }
+        b.put((byte) z);
+    }
+
+    static long getVarLong(ByteBuffer b) {
+        long z = 0;
+        int shift = 0;
+        byte x;
+        do {
+            x = b.get();
+            z |= (long) (x & 0x7F) << shift;
+            shift += 7;
+        } while (x < 0);
+        return (z >>> 1) ^ -(z & 1);
+    }
+}
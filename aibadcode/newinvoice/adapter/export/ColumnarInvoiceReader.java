@@ -0,0 +1,114 @@
+/*  adapter/export/ColumnarInvoiceReader.java  */
+package aibadcode.newinvoice.adapter.export;
+
+import static aibadcode.newinvoice.adapter.export.ColumnarInvoiceFormat.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.function.Consumer;
+
+import aibadcode.newinvoice.model.Invoice;
+
+/**
+ * Reads a file produced by {@link ColumnarInvoiceWriter} one row group at a
+ * time into reusable direct buffers, handing each row to a consumer.
+ */
+public final class ColumnarInvoiceReader implements AutoCloseable {
+
+    private final FileChannel  ch;
+    private final ByteBuffer   small   = ByteBuffer.allocateDirect(4 + 2 + MAX_STATUSES * (2 + 255));
+    private final ByteBuffer[] columns = new ByteBuffer[COLUMNS];
+
+    public ColumnarInvoiceReader(Path source) {
+        try {
+            ch = FileChannel.open(source, StandardOpenOption.READ);
+            ByteBuffer head = readFully(ByteBuffer.allocate(8));
+            if (head.getInt() != MAGIC) throw new ExportException("not a columnar invoice file: " + source, null);
+            int version = head.getInt();
+            if (version != VERSION) throw new ExportException("unsupported version " + version, null);
+        } catch (IOException ex) {
+            throw new ExportException("cannot open " + source, ex);
+        }
+    }
+
+    /** @return number of rows delivered */
+    public long forEach(Consumer<? super Invoice> sink) {
+        long total = 0;
+        try {
+            while (true) {
+                small.clear().limit(4);
+                int rows = readFully(small).getInt();
+                if (rows == 0) return total;
+
+                String[] statuses = readDictionary();
+                for (int i = 0; i < COLUMNS; i++) {
+                    small.clear().limit(4);
+                    int len = readFully(small).getInt();
+                    columns[i] = ensure(columns[i], len);
+                    readFully(columns[i]);
+                }
+
+                long id = 0, created = 0;
+                for (int r = 0; r < rows; r++) {
+                    id      += getVarLong(columns[0]);
+                    int scale = columns[1].get();
+                    long unscaled = getVarLong(columns[2]);
+                    String status = statuses[columns[3].get() & 0xFF];
+                    created += getVarLong(columns[4]);
+                    sink.accept(new Invoice(id, BigDecimal.valueOf(unscaled, scale), status,
+                            LocalDateTime.ofEpochSecond(Math.floorDiv(created, 1000L),
+                                    (int) Math.floorMod(created, 1000L) * 1_000_000, ZoneOffset.UTC)));
+                }
+                total += rows;
+            }
+        } catch (IOException ex) {
+            throw new ExportException("read failed", ex);
+        }
+    }
+
+    private String[] readDictionary() throws IOException {
+        small.clear().limit(2);
+        String[] statuses = new String[readFully(small).getShort() & 0xFFFF];
+        for (int i = 0; i < statuses.length; i++) {
+            small.clear().limit(2);
+            int len = readFully(small).getShort() & 0xFFFF;
+            small.clear().limit(len);
+            readFully(small);
+            byte[] b = new byte[len];
+            small.get(b);
+            statuses[i] = new String(b, StandardCharsets.UTF_8);
+        }
+        return statuses;
+    }
+
+    private static ByteBuffer ensure(ByteBuffer b, int len) {
+        if (b == null || b.capacity() < len) b = ByteBuffer.allocateDirect(Math.max(len, 1 << 16));
+        b.clear().limit(len);
+        return b;
+    }
+
+    /** Fill {@code b} up to its limit and flip it for reading. */
+    private ByteBuffer readFully(ByteBuffer b) throws IOException {
+        while (b.hasRemaining()) {
+            if (ch.read(b) < 0) throw new ExportException("unexpected end of file", null);
+        }
+        b.flip();
+        return b;
+    }
+
+    @Override
+    public void close() {
+        try {
+            ch.close();
+        } catch (IOException ex) {
+            throw new ExportException("close failed", ex);
+        }
+    }
+}
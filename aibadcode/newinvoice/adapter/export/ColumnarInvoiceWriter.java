@@ -0,0 +1,186 @@
+/*  adapter/export/ColumnarInvoiceWriter.java  */
+package aibadcode.newinvoice.adapter.export;
+
+import static aibadcode.newinvoice.adapter.export.ColumnarInvoiceFormat.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import aibadcode.newinvoice.adapter.codec.InvoiceCodec;
+import aibadcode.newinvoice.model.Invoice;
+
+/**
+ * Streams invoices into the {@link ColumnarInvoiceFormat columnar format}.
+ *
+ * <p>Each column of the current row group is encoded into its own
+ * preallocated direct buffer; a full group is written with one gathering
+ * {@link FileChannel#write(ByteBuffer[])}.  Memory use is fixed by
+ * {@code ROWS_PER_GROUP}, no matter how many rows are exported.</p>
+ *
+ * <p>Use as the sink of {@code JdbcInvoiceRepository.forEach}; not
+ * thread-safe.</p>
+ */
+public final class ColumnarInvoiceWriter implements Consumer<Invoice>, AutoCloseable {
+
+    private final Path         target;
+    private final FileChannel  ch;
+    private final ByteBuffer   header  = ByteBuffer.allocateDirect(4 + 2 + MAX_STATUSES * (2 + 255));
+    private final ByteBuffer[] columns = new ByteBuffer[COLUMNS];
+    private final ByteBuffer[] lengths = new ByteBuffer[COLUMNS];
+    private final ByteBuffer[] gather  = new ByteBuffer[1 + 2 * COLUMNS];
+
+    private final Map<String, Integer> dict     = new HashMap<>();
+    private final List<String>         statuses = new ArrayList<>();
+    private int  rows;
+    private long prevId;
+    private long prevCreated;
+    private long total;
+    private boolean closed;
+
+    public ColumnarInvoiceWriter(Path target) {
+        this.target = target;
+        try {
+            ch = FileChannel.open(target, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        } catch (IOException ex) {
+            throw new ExportException("cannot open " + target, ex);
+        }
+        try {
+            ByteBuffer magic = ByteBuffer.allocate(8).putInt(MAGIC).putInt(VERSION);
+            magic.flip();
+            while (magic.hasRemaining()) ch.write(magic);
+        } catch (IOException ex) {
+            ExportException failure = new ExportException("cannot write header to " + target, ex);
+            discard(failure);
+            throw failure;
+        }
+        int[] widths = { MAX_VARINT, 1, MAX_VARINT, 1, MAX_VARINT };   // id, scale, amount, status, created
+        for (int i = 0; i < COLUMNS; i++) {
+            columns[i] = ByteBuffer.allocateDirect(widths[i] * ROWS_PER_GROUP);
+            lengths[i] = ByteBuffer.allocateDirect(4);
+        }
+    }
+
+    @Override
+    public void accept(Invoice inv) {
+        Integer code = dict.get(inv.getStatus());
+        if (code == null) {
+            if (inv.getStatus().getBytes(StandardCharsets.UTF_8).length > 255) {
+                throw new ExportException("status too long: " + inv.getStatus(), null);
+            }
+            if (statuses.size() == MAX_STATUSES) flushGroup();   // new group, new dictionary
+            code = statuses.size();
+            dict.put(inv.getStatus(), code);
+            statuses.add(inv.getStatus());
+        }
+        BigDecimal amount = inv.getAmount();
+        if (!InvoiceCodec.amountFits(amount)) {
+            throw new ExportException("amount out of range for invoice " + inv.getId(), null);
+        }
+        long created = inv.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+
+        putVarLong(columns[0], inv.getId() - prevId);
+        columns[1].put((byte) amount.scale());
+        putVarLong(columns[2], amount.unscaledValue().longValue());
+        columns[3].put(code.byteValue());
+        putVarLong(columns[4], created - prevCreated);
+        prevId      = inv.getId();
+        prevCreated = created;
+        total++;
+
+        if (++rows == ROWS_PER_GROUP) flushGroup();
+    }
+
+    private void flushGroup() {
+        if (rows == 0) return;
+        header.clear();
+        header.putInt(rows).putShort((short) statuses.size());
+        for (String s : statuses) {
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            header.putShort((short) b.length).put(b);
+        }
+        header.flip();
+        gather[0] = header;
+        for (int i = 0; i < COLUMNS; i++) {
+            columns[i].flip();
+            lengths[i].clear();
+            lengths[i].putInt(columns[i].remaining()).flip();
+            gather[1 + 2 * i] = lengths[i];
+            gather[2 + 2 * i] = columns[i];
+        }
+        try {
+            while (gather[gather.length - 1].hasRemaining()) ch.write(gather);
+        } catch (IOException ex) {
+            throw new ExportException("write failed", ex);
+        }
+        for (ByteBuffer c : columns) c.clear();
+        dict.clear();
+        statuses.clear();
+        rows        = 0;
+        prevId      = 0;
+        prevCreated = 0;
+    }
+
+    /** @return rows accepted so far */
+    public long rowCount() { return total; }
+
+    /**
+     * Write the last group and the end marker, sync and close.  If that
+     * fails the file is deleted, as by {@link #abort()}.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        try {
+            flushGroup();
+            ByteBuffer end = ByteBuffer.allocate(4).putInt(0);
+            end.flip();
+            while (end.hasRemaining()) ch.write(end);
+            ch.force(false);
+            ch.close();
+        } catch (IOException | RuntimeException ex) {
+            ExportException failure = ex instanceof ExportException ? (ExportException) ex
+                                    : new ExportException("close failed: " + target, ex);
+            discard(failure);
+            throw failure;
+        }
+        closed = true;
+    }
+
+    /**
+     * Give up on a failed export: close without the end marker and delete the
+     * file, so a partial export can never pass for a complete one.  Never
+     * throws; safe to call after {@link #close()} has failed.
+     */
+    public void abort() {
+        if (closed) return;
+        discard(null);
+    }
+
+    // Close and delete; problems are attached to 'failure' rather than hiding it
+    private void discard(Throwable failure) {
+        closed = true;
+        try {
+            ch.close();
+        } catch (IOException ex) {
+            if (failure != null) failure.addSuppressed(ex);
+        }
+        try {
+            Files.deleteIfExists(target);
+        } catch (IOException ex) {
+            if (failure != null) failure.addSuppressed(ex);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+/*  adapter/export/ExportException.java  */
+package aibadcode.newinvoice.adapter.export;
+
+/** Unchecked wrapper for I/O and format errors of the columnar export. */
+public final class ExportException extends RuntimeException {
+    public ExportException(String msg, Throwable cause) { super(msg, cause); }
+}
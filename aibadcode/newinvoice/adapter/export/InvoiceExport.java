@@ -0,0 +1,57 @@
+/*  adapter/export/InvoiceExport.java  */
+package aibadcode.newinvoice.adapter.export;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import aibadcode.newinvoice.adapter.jdbc.JdbcInvoiceRepository;
+
+/**
+ * Export pipeline: JDBC cursor → {@link ColumnarInvoiceWriter}.
+ *
+ * <p>Neither side materialises the result set, so multi-GB exports run in
+ * the memory of one row group.  Rows go to {@code <target>.tmp}, which is
+ * renamed over {@code target} only after a complete, synced file has been
+ * written: a failed export leaves any previous file untouched and no
+ * truncated one behind.</p>
+ */
+public final class InvoiceExport {
+
+    /** Rows per JDBC round-trip. */
+    public static final int DEFAULT_FETCH_SIZE = 10_000;
+
+    private InvoiceExport() { }
+
+    /**
+     * @param status only this status, or {@code null} for every invoice
+     * @return rows exported
+     * @throws ExportException if the file cannot be written; errors from the
+     *         repository propagate as they are
+     */
+    public static long export(JdbcInvoiceRepository repo, String status, Path target) {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        ColumnarInvoiceWriter out = new ColumnarInvoiceWriter(tmp);
+        try {
+            repo.forEach(status, DEFAULT_FETCH_SIZE, out);
+            out.close();
+        } catch (RuntimeException | Error ex) {
+            out.abort();                               // no end marker, file removed
+            throw ex;
+        }
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING,
+                                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            ExportException failure = new ExportException("export rename failed: " + target, ex);
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException cleanup) {
+                failure.addSuppressed(cleanup);
+            }
+            throw failure;
+        }
+        return out.rowCount();
+    }
+}
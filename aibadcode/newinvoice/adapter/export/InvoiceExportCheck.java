@@ -0,0 +1,174 @@
+/*  adapter/export/InvoiceExportCheck.java  */
+package aibadcode.newinvoice.adapter.export;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import aibadcode.newinvoice.adapter.jdbc.JdbcInvoiceRepository;
+import aibadcode.newinvoice.model.Invoice;
+
+/**
+ * <h2>InvoiceExportCheck</h2>
+ *
+ * <p>Runs the whole export pipeline against an in-memory H2 database:
+ * inserts {@value #ROWS} invoices, streams them through
+ * {@link JdbcInvoiceRepository#forEach} into a columnar file (all of them,
+ * then only {@code UNPAID}), reads each file back with
+ * {@link ColumnarInvoiceReader} and compares every row with what was
+ * inserted.  Then an export that fails part-way, on an amount out of range,
+ * must leave the previous file untouched and no partial one behind.  Prints
+ * rows, file size and time per export and exits with status 1 on the first
+ * mismatch.</p>
+ *
+ * <pre>
+ *   java -cp &lt;classpath&gt; aibadcode.newinvoice.adapter.export.InvoiceExportCheck
+ * </pre>
+ */
+public final class InvoiceExportCheck {
+
+    private static final int           ROWS     = 200_000;
+    private static final String[]      STATUSES = { "UNPAID", "PAID", "OVERDUE" };
+    private static final LocalDateTime START    = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private InvoiceExportCheck() { }
+
+    public static void main(String[] args) throws Exception {
+        HikariConfig cfg = new HikariConfig();
+        cfg.setJdbcUrl("jdbc:h2:mem:export-check");       // dropped with the last connection
+        cfg.setUsername("sa");
+        cfg.setPassword("");
+        cfg.setPoolName("export-check");
+        cfg.setMaximumPoolSize(2);
+
+        Path dir = Files.createTempDirectory("invoice-export");
+        boolean ok;
+        try {
+            try (HikariDataSource ds = new HikariDataSource(cfg)) {
+                load(ds, ROWS);
+                JdbcInvoiceRepository repo = new JdbcInvoiceRepository(ds);
+                ok  = check(repo, null,     dir.resolve("all.inv"));
+                ok &= check(repo, "UNPAID", dir.resolve("unpaid.inv"));
+            }
+            ok &= failedExport(cfg, dir.resolve("unpaid.inv"));
+        } finally {
+            try (Stream<Path> files = Files.list(dir)) {
+                files.forEach(p -> p.toFile().delete());
+            }
+            Files.delete(dir);
+        }
+        System.out.println(ok ? "export matches the database" : "FAILED");
+        if (!ok) System.exit(1);
+    }
+
+    /** The invoice stored under {@code id}; ids run from 1 to {@value #ROWS}. */
+    private static Invoice expected(long id) {
+        return new Invoice(id,
+                BigDecimal.valueOf(id * 37 % 1_000_000 - 5_000, 2),
+                STATUSES[(int) (id % STATUSES.length)],
+                START.plusSeconds(id * 61).plusNanos(id % 1000 * 1_000_000));
+    }
+
+    private static void load(HikariDataSource ds, long rows) throws Exception {
+        try (Connection c = ds.getConnection()) {
+            try (Statement st = c.createStatement()) {
+                st.execute("CREATE TABLE invoices (id BIGINT PRIMARY KEY, " +
+                           "amount DECIMAL(38,4), status VARCHAR(16), created TIMESTAMP)");
+            }
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement(
+                    "INSERT INTO invoices (id, amount, status, created) VALUES (?,?,?,?)")) {
+                for (long id = 1; id <= rows; id++) {
+                    Invoice inv = expected(id);
+                    ps.setLong(1, id);
+                    ps.setBigDecimal(2, inv.getAmount());
+                    ps.setString(3, inv.getStatus());
+                    ps.setTimestamp(4, Timestamp.valueOf(inv.getCreatedAt()));
+                    ps.addBatch();
+                    if (id % 10_000 == 0) ps.executeBatch();
+                }
+                ps.executeBatch();
+            }
+            c.commit();
+        }
+    }
+
+    /** Overwrites {@code previous} with an export whose last row cannot be encoded. */
+    private static boolean failedExport(HikariConfig base, Path previous) throws Exception {
+        HikariConfig cfg = new HikariConfig();
+        base.copyStateTo(cfg);
+        cfg.setJdbcUrl("jdbc:h2:mem:export-check-failing");
+        cfg.setPoolName("export-check-failing");
+        long rows = 3 * ColumnarInvoiceFormat.ROWS_PER_GROUP;     // full groups are written before the bad row
+        byte[] before = Files.readAllBytes(previous);
+        boolean threw = false;
+        try (HikariDataSource ds = new HikariDataSource(cfg)) {
+            load(ds, rows);
+            try (Connection c = ds.getConnection(); Statement st = c.createStatement()) {
+                st.execute("INSERT INTO invoices VALUES (" + (rows + 1) + ", 1e20, 'UNPAID', CURRENT_TIMESTAMP)");
+            }
+            try {
+                InvoiceExport.export(new JdbcInvoiceRepository(ds), "UNPAID", previous);
+            } catch (ExportException expected) {
+                threw = true;
+            }
+        }
+        boolean intact  = Arrays.equals(before, Files.readAllBytes(previous));
+        boolean noTmp   = !Files.exists(previous.resolveSibling(previous.getFileName() + ".tmp"));
+        boolean ok      = threw && intact && noTmp;
+        System.out.printf("%-6s failed export: threw=%b previous intact=%b no partial file=%b%n",
+                ok ? "ok" : "WRONG", threw, intact, noTmp);
+        return ok;
+    }
+
+    private static boolean check(JdbcInvoiceRepository repo, String status, Path file) throws Exception {
+        long start = System.nanoTime();
+        long rows = InvoiceExport.export(repo, status, file);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        AtomicLong next = new AtomicLong(1);
+        AtomicLong bad  = new AtomicLong();
+        long read;
+        try (ColumnarInvoiceReader in = new ColumnarInvoiceReader(file)) {
+            read = in.forEach(inv -> {
+                long id = next.get();
+                while (status != null && !status.equals(expected(id).getStatus())) id++;
+                next.set(id + 1);
+                if (!same(expected(id), inv) && bad.getAndIncrement() == 0) {
+                    System.out.println("  first mismatch at id " + id + ": " + describe(inv));
+                }
+            });
+        }
+        long wanted = 0;
+        for (long id = 1; id <= ROWS; id++) {
+            if (status == null || status.equals(expected(id).getStatus())) wanted++;
+        }
+        boolean ok = rows == wanted && read == wanted && bad.get() == 0;
+        System.out.printf("%-6s %-7s rows=%d read=%d file=%d KB export=%d ms%n",
+                ok ? "ok" : "WRONG", status == null ? "(all)" : status,
+                rows, read, Files.size(file) / 1024, millis);
+        return ok;
+    }
+
+    private static boolean same(Invoice a, Invoice b) {
+        return a.getId() == b.getId()
+            && a.getAmount().compareTo(b.getAmount()) == 0
+            && a.getStatus().equals(b.getStatus())
+            && a.getCreatedAt().equals(b.getCreatedAt());
+    }
+
+    private static String describe(Invoice inv) {
+        return inv.getId() + " " + inv.getAmount() + " " + inv.getStatus() + " " + inv.getCreatedAt();
+    }
+}
@@ -6,9 +6,14 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 import javax.sql.DataSource;
 
@@ -31,6 +36,9 @@ import aibadcode.newinvoice.port.InvoiceRepository;
  */
 public class JdbcInvoiceRepository implements InvoiceRepository {
 
+    /** Ids per {@code IN (...)} list – well below every driver's parameter limit. */
+    private static final int MARK_PAID_CHUNK = 500;
+
     private final DataSource ds;
 
     public JdbcInvoiceRepository(DataSource ds) { this.ds = ds; }
@@ -62,11 +70,7 @@ public class JdbcInvoiceRepository implements InvoiceRepository {
 
             List<Invoice> list = new ArrayList<>();
             while (rs.next()) {
-                list.add(new Invoice(
-                       rs.getLong("id"),
-                       rs.getBigDecimal("amount"),
-                       rs.getString("status"),
-                       rs.getTimestamp("created").toLocalDateTime()));
+                list.add(map(rs));
             }
             return list;
         } catch (SQLException ex) {
@@ -74,6 +78,135 @@ public class JdbcInvoiceRepository implements InvoiceRepository {
         }
     }
 
+    /**
+     * Chunked {@code UPDATE ... WHERE id IN (...)}: full chunks share one
+     * prepared statement and go out as a JDBC batch, the remainder as a
+     * second statement, all in one transaction.
+     */
+    @Override
+    public int markPaid(Collection<Long> ids) {
+        if (ids.isEmpty()) return 0;
+        int fullChunks = ids.size() / MARK_PAID_CHUNK;
+        int rest       = ids.size() % MARK_PAID_CHUNK;
+        Iterator<Long> it = ids.iterator();
+
+        try (Connection c = ds.getConnection()) {
+            boolean autoCommit = c.getAutoCommit();
+            c.setAutoCommit(false);
+            try {
+                int changed = 0;
+                if (fullChunks > 0) {
+                    try (PreparedStatement ps = c.prepareStatement(markPaidSql(MARK_PAID_CHUNK))) {
+                        for (int chunk = 0; chunk < fullChunks; chunk++) {
+                            for (int i = 1; i <= MARK_PAID_CHUNK; i++) ps.setLong(i, it.next());
+                            ps.addBatch();
+                        }
+                        for (int n : ps.executeBatch()) {
+                            if (n > 0) changed += n;
+                        }
+                    }
+                }
+                if (rest > 0) {
+                    try (PreparedStatement ps = c.prepareStatement(markPaidSql(rest))) {
+                        for (int i = 1; i <= rest; i++) ps.setLong(i, it.next());
+                        changed += ps.executeUpdate();
+                    }
+                }
+                c.commit();
+                return changed;
+            } catch (SQLException | RuntimeException ex) {
+                c.rollback();
+                throw ex;
+            } finally {
+                c.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException ex) {
+            throw new PersistenceException("markPaid failed", ex);
+        }
+    }
+
+    private static String markPaidSql(int params) {
+        return "UPDATE invoices SET status='PAID' WHERE status<>'PAID' AND id IN (" +
+               String.join(",", Collections.nCopies(params, "?")) + ")";
+    }
+
+    /**
+     * Range query shaped for a composite index, e.g.
+     * {@code CREATE INDEX idx_invoices_status_created ON invoices(status, created)}:
+     * equality on the leading column, half-open range on the second.
+     */
+    @Override
+    public List<Invoice> findByStatusAndCreatedBetween(String status,
+                                                      LocalDateTime from,
+                                                      LocalDateTime to) {
+        String sql = "SELECT id,amount,status,created FROM invoices " +
+                     "WHERE status=? AND created>=? AND created<? ORDER BY created";
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setString(1, status);
+            ps.setTimestamp(2, Timestamp.from(from.toInstant(ZoneOffset.UTC)));
+            ps.setTimestamp(3, Timestamp.from(to.toInstant(ZoneOffset.UTC)));
+
+            List<Invoice> list = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(map(rs));
+                }
+            }
+            return list;
+        } catch (SQLException ex) {
+            throw new PersistenceException("range read failed", ex);
+        }
+    }
+
+    /**
+     * Stream invoices to {@code sink} one row at a time, ordered by id, using a
+     * forward-only cursor so memory use is independent of the result size.
+     *
+     * <p>Auto-commit is switched off for the duration because several drivers
+     * (Postgres, MySQL with {@code useCursorFetch=true}) only honour the fetch
+     * size inside a transaction.</p>
+     *
+     * @param status    only rows with this status, or {@code null} for all
+     * @param fetchSize rows the driver fetches per round-trip
+     * @return number of rows delivered
+     */
+    public long forEach(String status, int fetchSize, Consumer<? super Invoice> sink) {
+        String sql = "SELECT id,amount,status,created FROM invoices" +
+                     (status == null ? "" : " WHERE status=?") + " ORDER BY id";
+        try (Connection c = ds.getConnection()) {
+            boolean autoCommit = c.getAutoCommit();
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                ps.setFetchSize(fetchSize);
+                if (status != null) ps.setString(1, status);
+                long n = 0;
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        sink.accept(map(rs));
+                        n++;
+                    }
+                }
+                c.commit();
+                return n;
+            } finally {
+                c.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException ex) {
+            throw new PersistenceException("stream failed", ex);
+        }
+    }
+
+    private static Invoice map(ResultSet rs) throws SQLException {
+        return new Invoice(
+               rs.getLong("id"),
+               rs.getBigDecimal("amount"),
+               rs.getString("status"),
+               rs.getTimestamp("created").toLocalDateTime());
+    }
+
     /** Unchecked wrapper keeps port signature free of SQL types. */
     public static final class PersistenceException extends RuntimeException {
         public PersistenceException(String msg, Throwable cause){ super(msg,cause); }
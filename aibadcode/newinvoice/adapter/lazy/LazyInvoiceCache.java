@@ -0,0 +1,26 @@
+/*  adapter/lazy/LazyInvoiceCache.java  */
+package aibadcode.newinvoice.adapter.lazy;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import aibadcode.newinvoice.model.Invoice;
+import aibadcode.newinvoice.port.InvoiceCache;
+import aibadcode.newinvoice.util.Lazy;
+
+/** Virtual-proxy cache – the delegate is created on first use. */
+public class LazyInvoiceCache implements InvoiceCache {
+
+    private final Lazy<InvoiceCache> target;
+
+    public LazyInvoiceCache(Supplier<? extends InvoiceCache> factory) {
+        this.target = Lazy.of(factory);
+    }
+
+    @Override public void put(Invoice inv) { target.get().put(inv); }
+
+    @Override public Optional<Invoice> get(long id) { return target.get().get(id); }
+
+    @Override public void evictAll(Collection<Long> ids) { target.get().evictAll(ids); }
+}
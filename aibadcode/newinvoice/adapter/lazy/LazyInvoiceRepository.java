@@ -0,0 +1,44 @@
+/*  adapter/lazy/LazyInvoiceRepository.java  */
+package aibadcode.newinvoice.adapter.lazy;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import aibadcode.newinvoice.model.Invoice;
+import aibadcode.newinvoice.port.InvoiceRepository;
+import aibadcode.newinvoice.util.Lazy;
+
+/**
+ * Virtual-proxy repository: the real adapter (and its connection pool) is
+ * only built on first use, or earlier via {@link #warmUpAsync()}.
+ *
+ * <b>Proxy</b> pattern – same port, deferred construction.
+ */
+public class LazyInvoiceRepository implements InvoiceRepository {
+
+    private final Lazy<InvoiceRepository> target;
+
+    public LazyInvoiceRepository(Supplier<? extends InvoiceRepository> factory) {
+        this.target = Lazy.of(factory);
+    }
+
+    /** Start building the delegate in the background. */
+    public CompletableFuture<InvoiceRepository> warmUpAsync() {
+        return target.warmUpAsync();
+    }
+
+    @Override public void save(Invoice inv) { target.get().save(inv); }
+
+    @Override public List<Invoice> findUnpaid() { return target.get().findUnpaid(); }
+
+    @Override public List<Invoice> findByStatusAndCreatedBetween(String status,
+                                                                LocalDateTime from,
+                                                                LocalDateTime to) {
+        return target.get().findByStatusAndCreatedBetween(status, from, to);
+    }
+
+    @Override public int markPaid(Collection<Long> ids) { return target.get().markPaid(ids); }
+}
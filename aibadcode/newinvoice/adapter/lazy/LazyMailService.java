@@ -0,0 +1,34 @@
+/*  adapter/lazy/LazyMailService.java  */
+package aibadcode.newinvoice.adapter.lazy;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import aibadcode.newinvoice.model.Invoice;
+import aibadcode.newinvoice.port.MailService;
+import aibadcode.newinvoice.util.Lazy;
+
+/**
+ * Virtual-proxy mail adapter – Jakarta Mail classes are not even loaded
+ * until the first notification goes out.
+ */
+public class LazyMailService implements MailService {
+
+    private final Lazy<MailService> target;
+
+    public LazyMailService(Supplier<? extends MailService> factory) {
+        this.target = Lazy.of(factory);
+    }
+
+    @Override public void sendInvoiceCreated(Invoice inv) {
+        target.get().sendInvoiceCreated(inv);
+    }
+
+    @Override public void sendInvoicesCreated(List<Invoice> invoices) {
+        target.get().sendInvoicesCreated(invoices);
+    }
+
+    @Override public void sendPaymentReminders(List<Invoice> due) {
+        target.get().sendPaymentReminders(due);
+    }
+}
@@ -0,0 +1,21 @@
+/*  adapter/lazy/LazyTokenService.java  */
+package aibadcode.newinvoice.adapter.lazy;
+
+import java.util.function.Supplier;
+
+import aibadcode.newinvoice.port.TokenService;
+import aibadcode.newinvoice.util.Lazy;
+
+/** Virtual-proxy token adapter – defers JJWT class loading and key decoding. */
+public class LazyTokenService implements TokenService {
+
+    private final Lazy<TokenService> target;
+
+    public LazyTokenService(Supplier<? extends TokenService> factory) {
+        this.target = Lazy.of(factory);
+    }
+
+    @Override public String issueToken(String clientId) {
+        return target.get().issueToken(clientId);
+    }
+}
@@ -0,0 +1,64 @@
+/*  File: src/main/java/aibadcode/newinvoice/adapter/mail/InvoiceMailTemplates.java  */
+package aibadcode.newinvoice.adapter.mail;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import aibadcode.newinvoice.model.Invoice;
+import aibadcode.newinvoice.util.MessageTemplate;
+import aibadcode.newinvoice.util.MessageTemplate.Field;
+
+/**
+ * Precompiled subject/body templates for invoice notifications.
+ *
+ * <p>Placeholders: <code>${id}</code>, <code>${amount}</code>,
+ * <code>${status}</code>, <code>${created}</code>.</p>
+ */
+public final class InvoiceMailTemplates {
+
+    /** Placeholder name → appender; shared by every invoice template, read-only. */
+    public static final Map<String, Field<Invoice>> FIELDS;
+    static {
+        Map<String, Field<Invoice>> m = new HashMap<>();
+        m.put("id",      (out, inv) -> out.append(inv.getId()));
+        m.put("amount",  (out, inv) -> out.append(inv.getAmount()));   // BigDecimal caches its string
+        m.put("status",  (out, inv) -> out.append(inv.getStatus()));
+        m.put("created", (out, inv) -> out.append(inv.getCreatedAt()));
+        FIELDS = Collections.unmodifiableMap(m);
+    }
+
+    private static final String DEFAULT_DIGEST_LINE = "Invoice ${id} - amount due: ${amount}";
+
+    final MessageTemplate<Invoice> createdSubject;
+    final MessageTemplate<Invoice> createdBody;
+    final MessageTemplate<Invoice> reminderSubject;
+    final MessageTemplate<Invoice> reminderBody;
+    final MessageTemplate<Invoice> digestLine;
+
+    public InvoiceMailTemplates(String createdSubject, String createdBody,
+                                String reminderSubject, String reminderBody) {
+        this(createdSubject, createdBody, reminderSubject, reminderBody,
+             DEFAULT_DIGEST_LINE);
+    }
+
+    /** @param digestLine one line per invoice in a "invoices created" digest */
+    public InvoiceMailTemplates(String createdSubject, String createdBody,
+                                String reminderSubject, String reminderBody,
+                                String digestLine) {
+        this.createdSubject  = MessageTemplate.compile(createdSubject,  FIELDS);
+        this.createdBody     = MessageTemplate.compile(createdBody,     FIELDS);
+        this.reminderSubject = MessageTemplate.compile(reminderSubject, FIELDS);
+        this.reminderBody    = MessageTemplate.compile(reminderBody,    FIELDS);
+        this.digestLine      = MessageTemplate.compile(digestLine,      FIELDS);
+    }
+
+    /** The wording {@link JavaMailService} has always used. */
+    public static InvoiceMailTemplates defaults() {
+        return new InvoiceMailTemplates(
+            "Invoice ${id} created",
+            "Amount due: ${amount}",
+            "Payment reminder: invoice ${id}",
+            "Amount due: ${amount}");
+    }
+}
@@ -1,8 +1,11 @@
 /*  File: src/main/java/aibadcode/newinvoice/adapter/mail/JavaMailService.java  */
 package aibadcode.newinvoice.adapter.mail;
 
+import java.util.List;
+
 import aibadcode.newinvoice.model.Invoice;
 import aibadcode.newinvoice.port.MailService;
+import aibadcode.newinvoice.util.MessageTemplate;
 import jakarta.mail.Message;
 import jakarta.mail.MessagingException;
 import jakarta.mail.Session;
@@ -15,32 +18,99 @@ import jakarta.mail.internet.MimeMessage;
  *
  * <p>Implements {@link MailService} using Jakarta Mail.  Session is injected to
  * obey <b>DIP</b> and ease unit testing (mock Session).</p>
+ *
+ * <p>Addresses are parsed once in the constructor and subject/body come from
+ * precompiled {@link InvoiceMailTemplates}; per message only the
+ * {@link MimeMessage} itself is built.</p>
  */
 public class JavaMailService implements MailService {
 
-    private final Session session;
-    private final String  from;
+    private static final String RECIPIENT = "customer@example.com";
+
+    private final Session              session;
+    private final InternetAddress      sender;
+    private final InternetAddress[]    recipients;
+    private final InvoiceMailTemplates templates;
 
     public JavaMailService(Session session, String fromAddress) {
-        this.session = session;
-        this.from    = fromAddress;
+        this(session, fromAddress, InvoiceMailTemplates.defaults());
+    }
+
+    public JavaMailService(Session session, String fromAddress, InvoiceMailTemplates templates) {
+        this.session   = session;
+        this.templates = templates;
+        try {
+            this.sender     = new InternetAddress(fromAddress);
+            this.recipients = InternetAddress.parse(RECIPIENT);
+        } catch (MessagingException ex) {
+            throw new MailException("bad address", ex);
+        }
     }
 
     @Override
     public void sendInvoiceCreated(Invoice inv) {
+        try {
+            Transport.send(message(inv, templates.createdSubject, templates.createdBody));
+        } catch (MessagingException ex) {
+            throw new MailException("SMTP failure", ex);
+        }
+    }
+
+    /** One digest message listing every invoice in the batch. */
+    @Override
+    public void sendInvoicesCreated(List<Invoice> invoices) {
+        if (invoices.isEmpty()) return;
+        if (invoices.size() == 1) {
+            sendInvoiceCreated(invoices.get(0));
+            return;
+        }
+        StringBuilder body = new StringBuilder(64 * invoices.size());
+        for (Invoice inv : invoices) {
+            templates.digestLine.appendTo(body, inv).append('\n');
+        }
         try {
             Message msg = new MimeMessage(session);
-            msg.setFrom(new InternetAddress(from));
-            msg.setRecipients(Message.RecipientType.TO,
-                    InternetAddress.parse("customer@example.com"));
-            msg.setSubject("Invoice " + inv.getId() + " created");
-            msg.setText("Amount due: " + inv.getAmount());
+            msg.setFrom(sender);
+            msg.setRecipients(Message.RecipientType.TO, recipients);
+            msg.setSubject(invoices.size() + " invoices created");
+            msg.setText(body.toString());
             Transport.send(msg);
         } catch (MessagingException ex) {
             throw new MailException("SMTP failure", ex);
         }
     }
 
+    /** Sends the whole batch over a single SMTP connection. */
+    @Override
+    public void sendPaymentReminders(List<Invoice> due) {
+        if (due.isEmpty()) return;
+        try {
+            Transport transport = session.getTransport("smtp");
+            transport.connect();
+            try {
+                for (Invoice inv : due) {
+                    Message msg = message(inv, templates.reminderSubject, templates.reminderBody);
+                    msg.saveChanges();
+                    transport.sendMessage(msg, recipients);
+                }
+            } finally {
+                transport.close();
+            }
+        } catch (MessagingException ex) {
+            throw new MailException("SMTP failure", ex);
+        }
+    }
+
+    private Message message(Invoice inv, MessageTemplate<Invoice> subject,
+                            MessageTemplate<Invoice> body) throws MessagingException {
+        Message msg = new MimeMessage(session);
+        msg.setFrom(sender);
+        msg.setRecipients(Message.RecipientType.TO, recipients);
+        msg.setSubject(subject.render(inv));
+        msg.setText(body.render(inv));
+        return msg;
+    }
+
     /** Keeps checked exception noise out of the service layer. */
     public static final class MailException extends RuntimeException {
         public MailException(String m, Throwable c){ super(m,c); }
@@ -0,0 +1,171 @@
+/*  adapter/notification/CoalescingMailService.java  */
+package aibadcode.newinvoice.adapter.notification;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import aibadcode.newinvoice.model.Invoice;
+import aibadcode.newinvoice.port.MailService;
+
+/**
+ * <h2>CoalescingMailService – Digest Decorator</h2>
+ *
+ * <p>Buffers "invoice created" notifications per recipient and forwards them
+ * as one {@link MailService#sendInvoicesCreated digest} once the buffer
+ * reaches {@code maxBatch} invoices or {@code window} has passed since its
+ * first entry, whichever comes first.  A billing run that creates 50
+ * invoices for one customer costs one SMTP message instead of 50.</p>
+ *
+ * <p>Reminders are already batched and pass straight through.  Call
+ * {@link #close()} on shutdown (e.g. from a JVM shutdown hook) so nothing
+ * buffered is lost.</p>
+ *
+ * <b>Decorator</b> – same port, added behaviour; {@code InvoiceService} is
+ * unchanged (<b>OCP</b>).
+ */
+public class CoalescingMailService implements MailService, AutoCloseable {
+
+    private final MailService               delegate;
+    private final Function<Invoice, String> recipientOf;
+    private final long                      windowMillis;
+    private final int                       maxBatch;
+
+    private final Map<String, Batch>       pending = new HashMap<>();  // guarded by itself
+    private final ScheduledExecutorService timer;
+    private boolean                        closed;    // guarded by pending
+
+    private final LongAdder notifications = new LongAdder();
+    private final LongAdder digests       = new LongAdder();
+
+    /**
+     * @param recipientOf maps an invoice to the address it is mailed to;
+     *                    invoices with the same key share a digest
+     */
+    public CoalescingMailService(MailService delegate,
+                                 Function<Invoice, String> recipientOf,
+                                 Duration window,
+                                 int maxBatch) {
+        if (maxBatch < 1) throw new IllegalArgumentException("maxBatch must be >= 1");
+        this.delegate     = Objects.requireNonNull(delegate);
+        this.recipientOf  = Objects.requireNonNull(recipientOf);
+        this.windowMillis = window.toMillis();
+        this.maxBatch     = maxBatch;
+        this.timer        = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mail-coalescer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Override
+    public void sendInvoiceCreated(Invoice inv) {
+        notifications.increment();
+        String key = recipientOf.apply(inv);
+        List<Invoice> full;
+        synchronized (pending) {
+            if (closed) {
+                full = Collections.singletonList(inv);
+            } else {
+                full = buffer(key, inv);
+            }
+        }
+        if (full != null) emit(full);
+    }
+
+    /** Caller holds the {@code pending} lock. @return a full batch to send, or null */
+    private List<Invoice> buffer(String key, Invoice inv) {
+        Batch b = pending.get(key);
+        if (b == null) {
+            b = new Batch();
+            pending.put(key, b);
+            Batch scheduled = b;
+            timer.schedule(() -> flush(key, scheduled), windowMillis, TimeUnit.MILLISECONDS);
+        }
+        b.invoices.add(inv);
+        if (b.invoices.size() < maxBatch) return null;
+        pending.remove(key);
+        return b.invoices;
+    }
+
+    @Override
+    public void sendInvoicesCreated(List<Invoice> invoices) {
+        for (Invoice inv : invoices) sendInvoiceCreated(inv);
+    }
+
+    @Override
+    public void sendPaymentReminders(List<Invoice> due) {
+        delegate.sendPaymentReminders(due);
+    }
+
+    /** Window expired: send the batch unless a count flush already took it. */
+    private void flush(String key, Batch b) {
+        synchronized (pending) {
+            if (pending.get(key) != b) return;
+            pending.remove(key);
+        }
+        try {
+            emit(b.invoices);
+        } catch (RuntimeException ex) {
+            // keep the timer thread alive; the caller that buffered is long gone
+            System.err.println("[MAIL] digest of " + b.invoices.size() + " failed: " + ex);
+        }
+    }
+
+    private void emit(List<Invoice> invoices) {
+        digests.increment();
+        delegate.sendInvoicesCreated(invoices);
+    }
+
+    /* ---------------------------------------------------------------- */
+    /* Metrics                                                          */
+    /* ---------------------------------------------------------------- */
+
+    public long notifications() { return notifications.sum(); }
+    public long digestsSent()   { return digests.sum(); }
+
+    /** Notifications per message actually sent; 1.0 means no coalescing. */
+    public double batchingRatio() {
+        long d = digests.sum();
+        return d == 0 ? 0.0 : (double) notifications.sum() / d;
+    }
+
+    /**
+     * Stop the timer and send everything still buffered.  Every batch is
+     * attempted even if some fail; the first failure is rethrown with the
+     * others attached as suppressed exceptions.
+     */
+    @Override
+    public void close() {
+        List<List<Invoice>> rest = new ArrayList<>();
+        synchronized (pending) {
+            closed = true;
+            timer.shutdownNow();
+            for (Batch b : pending.values()) rest.add(b.invoices);
+            pending.clear();
+        }
+        RuntimeException failure = null;
+        for (List<Invoice> invoices : rest) {
+            try {
+                emit(invoices);
+            } catch (RuntimeException ex) {
+                if (failure == null) failure = ex;
+                else failure.addSuppressed(ex);
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    private static final class Batch {
+        final List<Invoice> invoices = new ArrayList<>();
+    }
+}
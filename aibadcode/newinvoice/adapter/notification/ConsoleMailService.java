@@ -1,6 +1,8 @@
 /*  adapter/notification/ConsoleMailService.java  */
 package aibadcode.newinvoice.adapter.notification;
 
+import java.util.List;
+
 import aibadcode.newinvoice.model.Invoice;
 import aibadcode.newinvoice.port.MailService;
 
@@ -15,4 +17,18 @@ public class ConsoleMailService implements MailService {
         System.out.println("[MAIL] Invoice " + inv.getId() +
                            " created for $" + inv.getAmount());
     }
+
+    @Override public void sendInvoicesCreated(List<Invoice> invoices) {
+        System.out.println("[MAIL] Digest: " + invoices.size() + " invoices created");
+        for (Invoice inv : invoices) {
+            System.out.println("       Invoice " + inv.getId() + " for $" + inv.getAmount());
+        }
+    }
+
+    @Override public void sendPaymentReminders(List<Invoice> due) {
+        for (Invoice inv : due) {
+            System.out.println("[MAIL] Reminder: invoice " + inv.getId() +
+                               " for $" + inv.getAmount() + " is due");
+        }
+    }
 }
@@ -1,11 +1,23 @@
 /*  adapter/persistence/InMemoryInvoiceRepository.java  */
 package aibadcode.newinvoice.adapter.persistence;
 
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import aibadcode.newinvoice.adapter.snapshot.InvoiceSnapshotFile;
+import aibadcode.newinvoice.adapter.snapshot.Snapshottable;
 import aibadcode.newinvoice.model.Invoice;
 import aibadcode.newinvoice.port.InvoiceRepository;
 
@@ -14,7 +26,20 @@ import aibadcode.newinvoice.port.InvoiceRepository;
  *
  * <p>Concrete adapter that <em>implements</em> the
  * {@link aibadcode.newinvoice.port.InvoiceRepository InvoiceRepository} port
- * using a plain {@link HashMap}. No external libraries required.</p>
+ * using a {@link ConcurrentHashMap}. No external libraries required.</p>
+ *
+ * <p>Implements {@link Snapshottable}: dump it with a
+ * {@link aibadcode.newinvoice.adapter.snapshot.Snapshotter} and restart warm
+ * via {@link #fromSnapshot(Path)}.</p>
+ *
+ * <p>A secondary index groups invoices by status and by <em>hour of
+ * creation</em> in a {@link ConcurrentSkipListMap}, so
+ * {@link #findByStatusAndCreatedBetween} only visits the buckets that overlap
+ * the requested range.</p>
+ *
+ * <p>Single-invoice writes and reads share a read lock (the maps are
+ * concurrent); {@link #markPaid} takes the write lock so readers see a bulk
+ * status change either completely or not at all.</p>
  *
  * <h3>SOLID</h3>
  * <ul>
@@ -23,17 +48,129 @@ import aibadcode.newinvoice.port.InvoiceRepository;
  *   <li><b>DIP</b> – Depends on domain model, not vice-versa.</li>
  * </ul>
  */
-public class InMemoryInvoiceRepository implements InvoiceRepository {
+public class InMemoryInvoiceRepository implements InvoiceRepository, Snapshottable {
+
+    private static final long BUCKET_SECONDS = 3600;
 
-    private final Map<Long, Invoice> store = new HashMap<>();
+    private final ConcurrentHashMap<Long, Invoice> store;
 
-    @Override public void save(Invoice inv) { store.put(inv.getId(), inv); }
+    /** status → hour bucket → invoices created in that hour (by id). */
+    private final Map<String, ConcurrentSkipListMap<Long, Map<Long, Invoice>>> byStatusAndHour =
+            new ConcurrentHashMap<>();
+
+    private final ReadWriteLock bulk = new ReentrantReadWriteLock();
+
+    public InMemoryInvoiceRepository() { this(new ConcurrentHashMap<>()); }
+
+    private InMemoryInvoiceRepository(ConcurrentHashMap<Long, Invoice> store) {
+        this.store = store;
+        // a restored snapshot may hold millions of invoices: index them in parallel too
+        store.values().parallelStream().forEach(this::index);
+    }
+
+    /** Rebuild a repository from a snapshot written by {@link InvoiceSnapshotFile}. */
+    public static InMemoryInvoiceRepository fromSnapshot(Path snapshot) {
+        return new InMemoryInvoiceRepository(InvoiceSnapshotFile.read(snapshot));
+    }
+
+    @Override public void save(Invoice inv) {
+        bulk.readLock().lock();
+        try {
+            replace(inv);
+        } finally {
+            bulk.readLock().unlock();
+        }
+    }
 
     @Override public List<Invoice> findUnpaid() {
+        bulk.readLock().lock();
+        try {
+            List<Invoice> list = new ArrayList<>();
+            for (Invoice inv : store.values()) {
+                if ("UNPAID".equals(inv.getStatus())) list.add(inv);
+            }
+            return list;
+        } finally {
+            bulk.readLock().unlock();
+        }
+    }
+
+    @Override public int markPaid(Collection<Long> ids) {
+        bulk.writeLock().lock();
+        try {
+            int changed = 0;
+            for (Long id : ids) {
+                Invoice inv = store.get(id);
+                if (inv != null && !"PAID".equals(inv.getStatus())) {
+                    replace(inv.withStatus("PAID"));
+                    changed++;
+                }
+            }
+            return changed;
+        } finally {
+            bulk.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Store {@code inv} and move its index entry from the invoice it displaces.
+     * {@code compute} holds the key's bin, so two saves of the same id cannot
+     * interleave and leave the loser's entry behind in an hour bucket.
+     */
+    private void replace(Invoice inv) {
+        store.compute(inv.getId(), (id, old) -> {
+            if (old != null) unindex(old);
+            index(inv);
+            return inv;
+        });
+    }
+
+    @Override public List<Invoice> findByStatusAndCreatedBetween(String status,
+                                                                LocalDateTime from,
+                                                                LocalDateTime to) {
         List<Invoice> list = new ArrayList<>();
-        for (Invoice inv : store.values()) {
-            if ("UNPAID".equals(inv.getStatus())) list.add(inv);
+        ConcurrentSkipListMap<Long, Map<Long, Invoice>> hours = byStatusAndHour.get(status);
+        if (hours == null || !from.isBefore(to)) return list;
+
+        bulk.readLock().lock();
+        try {
+            ConcurrentNavigableMap<Long, Map<Long, Invoice>> range =
+                    hours.subMap(bucket(from), true, bucket(to), true);
+            for (Map<Long, Invoice> bucket : range.values()) {
+                for (Invoice inv : bucket.values()) {
+                    LocalDateTime at = inv.getCreatedAt();
+                    // edge buckets are partial; store check skips a save still in progress
+                    if (!at.isBefore(from) && at.isBefore(to) && store.get(inv.getId()) == inv) {
+                        list.add(inv);
+                    }
+                }
+            }
+        } finally {
+            bulk.readLock().unlock();
         }
+        list.sort(Comparator.comparing(Invoice::getCreatedAt));
         return list;
     }
+
+    private void index(Invoice inv) {
+        byStatusAndHour
+            .computeIfAbsent(inv.getStatus(), s -> new ConcurrentSkipListMap<>())
+            .computeIfAbsent(bucket(inv.getCreatedAt()), h -> new ConcurrentHashMap<>())
+            .put(inv.getId(), inv);
+    }
+
+    private void unindex(Invoice inv) {
+        ConcurrentSkipListMap<Long, Map<Long, Invoice>> hours = byStatusAndHour.get(inv.getStatus());
+        if (hours == null) return;
+        Map<Long, Invoice> bucket = hours.get(bucket(inv.getCreatedAt()));
+        if (bucket != null) bucket.remove(inv.getId(), inv);
+    }
+
+    private static long bucket(LocalDateTime t) {
+        return Math.floorDiv(t.toEpochSecond(ZoneOffset.UTC), BUCKET_SECONDS);
+    }
+
+    @Override public Collection<Invoice> snapshotView() {
+        return Collections.unmodifiableCollection(store.values());
+    }
 }
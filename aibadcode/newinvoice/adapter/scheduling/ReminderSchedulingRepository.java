@@ -0,0 +1,48 @@
+/*  adapter/scheduling/ReminderSchedulingRepository.java  */
+package aibadcode.newinvoice.adapter.scheduling;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import aibadcode.newinvoice.model.Invoice;
+import aibadcode.newinvoice.port.InvoiceRepository;
+import aibadcode.newinvoice.service.ReminderScheduler;
+
+/**
+ * <b>Decorator</b> that puts every saved unpaid invoice on the
+ * {@link ReminderScheduler}'s timing wheel, and takes paid ones off it.
+ *
+ * <p>{@code InvoiceService.createInvoice} stays untouched (<b>OCP</b>); wrap
+ * the real repository with this class to get reminders.</p>
+ */
+public class ReminderSchedulingRepository implements InvoiceRepository {
+
+    private final InvoiceRepository delegate;
+    private final ReminderScheduler scheduler;
+
+    public ReminderSchedulingRepository(InvoiceRepository delegate, ReminderScheduler scheduler) {
+        this.delegate  = Objects.requireNonNull(delegate);
+        this.scheduler = Objects.requireNonNull(scheduler);
+    }
+
+    @Override public void save(Invoice inv) {
+        delegate.save(inv);
+        scheduler.schedule(inv);
+    }
+
+    @Override public List<Invoice> findUnpaid() { return delegate.findUnpaid(); }
+
+    @Override public List<Invoice> findByStatusAndCreatedBetween(String status,
+                                                                LocalDateTime from,
+                                                                LocalDateTime to) {
+        return delegate.findByStatusAndCreatedBetween(status, from, to);
+    }
+
+    @Override public int markPaid(Collection<Long> ids) {
+        int n = delegate.markPaid(ids);
+        for (Long id : ids) scheduler.cancel(id);
+        return n;
+    }
+}
@@ -0,0 +1,193 @@
+/*  adapter/snapshot/InvoiceSnapshotFile.java  */
+package aibadcode.newinvoice.adapter.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import aibadcode.newinvoice.adapter.codec.InvoiceCodec;
+import aibadcode.newinvoice.model.Invoice;
+
+/**
+ * <h2>InvoiceSnapshotFile – Compact binary dump of an invoice map</h2>
+ *
+ * <p>Layout (big-endian):</p>
+ * <pre>
+ *   header   : magic "INVS" (4) | version (4)
+ *   records  : N × 32-byte {@link InvoiceCodec} records, status codes
+ *              indexing the dictionary below
+ *   trailer  : status dictionary (count (2), then len (2) + UTF-8 each) |
+ *              record count (8) | trailer offset (8) | magic "INVS" (4)
+ * </pre>
+ *
+ * <p>Fixed-size records let {@link #read(Path)} split the file into slices,
+ * memory-map each slice and decode them in parallel straight into a
+ * pre-sized {@link ConcurrentHashMap}.  {@link #write} streams through a
+ * direct buffer into a {@link FileChannel} on a temp file and atomically
+ * renames it, so a crash never leaves a half-written snapshot behind.</p>
+ */
+public final class InvoiceSnapshotFile {
+
+    private static final int  MAGIC       = 0x494E5653;   // "INVS"
+    private static final int  VERSION     = 2;            // 1: pre-InvoiceCodec record layout
+    private static final int  HEADER      = 8;
+    private static final int  RECORD      = InvoiceCodec.RECORD_SIZE;
+    private static final int  TAIL_FIXED  = 8 + 8 + 4;
+    private static final int  WRITE_BUF   = 1 << 20;
+    private static final long MAX_SLICE   = (1L << 30) / RECORD * RECORD;
+
+    private InvoiceSnapshotFile() { }
+
+    /* ------------------------------------------------------------------ */
+    /* Write                                                              */
+    /* ------------------------------------------------------------------ */
+
+    /**
+     * Dump {@code invoices} to {@code target}.
+     *
+     * @return number of records written
+     */
+    public static long write(Iterable<Invoice> invoices, Path target) {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        Map<String, Integer> dict = new HashMap<>();
+        List<String> statuses = new ArrayList<>();
+        long count = 0;
+
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            ByteBuffer buf = ByteBuffer.allocateDirect(WRITE_BUF);
+            buf.putInt(MAGIC).putInt(VERSION);
+
+            for (Invoice inv : invoices) {
+                if (buf.remaining() < RECORD) flush(ch, buf);
+
+                Integer code = dict.get(inv.getStatus());
+                if (code == null) {
+                    if (statuses.size() == 256) {
+                        throw new SnapshotException("more than 256 distinct statuses", null);
+                    }
+                    code = statuses.size();
+                    dict.put(inv.getStatus(), code);
+                    statuses.add(inv.getStatus());
+                }
+                if (!InvoiceCodec.amountFits(inv.getAmount())) {
+                    throw new SnapshotException("amount out of range for invoice " + inv.getId(), null);
+                }
+                InvoiceCodec.write(buf, buf.position(), inv, code);
+                buf.position(buf.position() + RECORD);
+                count++;
+            }
+
+            long trailerOffset = HEADER + count * RECORD;
+            flush(ch, buf);
+            buf.putShort((short) statuses.size());
+            for (String s : statuses) {
+                byte[] b = s.getBytes(StandardCharsets.UTF_8);
+                if (buf.remaining() < 2 + b.length + TAIL_FIXED) flush(ch, buf);
+                buf.putShort((short) b.length).put(b);
+            }
+            buf.putLong(count).putLong(trailerOffset).putInt(MAGIC);
+            flush(ch, buf);
+            ch.force(false);
+        } catch (IOException ex) {
+            throw new SnapshotException("snapshot write failed: " + tmp, ex);
+        }
+
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING,
+                                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new SnapshotException("snapshot rename failed: " + target, ex);
+        }
+        return count;
+    }
+
+    private static void flush(FileChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) ch.write(buf);
+        buf.clear();
+    }
+
+    /* ------------------------------------------------------------------ */
+    /* Read                                                               */
+    /* ------------------------------------------------------------------ */
+
+    /**
+     * Memory-map {@code source} and rebuild the id → invoice map using all
+     * available cores.
+     */
+    public static ConcurrentHashMap<Long, Invoice> read(Path source) {
+        try (FileChannel ch = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER + TAIL_FIXED) {
+                throw new SnapshotException("truncated snapshot: " + source, null);
+            }
+            ByteBuffer head = ByteBuffer.allocate(HEADER);
+            ch.read(head, 0);
+            ByteBuffer tail = ByteBuffer.allocate(TAIL_FIXED);
+            ch.read(tail, size - TAIL_FIXED);
+            if (head.getInt(0) != MAGIC || tail.getInt(16) != MAGIC) {
+                throw new SnapshotException("not an invoice snapshot: " + source, null);
+            }
+            if (head.getInt(4) != VERSION) {
+                throw new SnapshotException("unsupported snapshot version " + head.getInt(4), null);
+            }
+            long count         = tail.getLong(0);
+            long trailerOffset = tail.getLong(8);
+
+            ByteBuffer dictBuf = ch.map(FileChannel.MapMode.READ_ONLY, trailerOffset,
+                                        size - TAIL_FIXED - trailerOffset);
+            String[] statuses = new String[dictBuf.getShort() & 0xFFFF];
+            for (int i = 0; i < statuses.length; i++) {
+                byte[] b = new byte[dictBuf.getShort() & 0xFFFF];
+                dictBuf.get(b);
+                statuses[i] = new String(b, StandardCharsets.UTF_8).intern();
+            }
+
+            ConcurrentHashMap<Long, Invoice> map =
+                    new ConcurrentHashMap<>((int) Math.min(Integer.MAX_VALUE, count * 4 / 3 + 1));
+
+            long dataBytes = count * RECORD;
+            int  cores     = Runtime.getRuntime().availableProcessors();
+            long perSlice  = Math.min(MAX_SLICE,
+                    Math.max(RECORD, (dataBytes / cores + RECORD - 1) / RECORD * RECORD));
+            int  slices    = (int) ((dataBytes + perSlice - 1) / perSlice);
+
+            IntStream.range(0, slices).parallel().forEach(s -> {
+                long from = HEADER + s * perSlice;
+                long len  = Math.min(perSlice, HEADER + dataBytes - from);
+                MappedByteBuffer mb;
+                try {
+                    mb = ch.map(FileChannel.MapMode.READ_ONLY, from, len);
+                } catch (IOException ex) {
+                    throw new SnapshotException("map failed at " + from, ex);
+                }
+                for (int p = 0; p < len; p += RECORD) {
+                    Invoice inv = InvoiceCodec.read(mb, p, statuses);
+                    map.put(inv.getId(), inv);
+                }
+            });
+            return map;
+        } catch (IOException ex) {
+            throw new SnapshotException("snapshot read failed: " + source, ex);
+        }
+    }
+
+    /** Unchecked wrapper, mirroring the JDBC adapter's PersistenceException. */
+    public static final class SnapshotException extends RuntimeException {
+        public SnapshotException(String msg, Throwable cause) { super(msg, cause); }
+    }
+}
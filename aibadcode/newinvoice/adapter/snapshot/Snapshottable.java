@@ -0,0 +1,18 @@
+/*  adapter/snapshot/Snapshottable.java  */
+package aibadcode.newinvoice.adapter.snapshot;
+
+import java.util.Collection;
+
+import aibadcode.newinvoice.model.Invoice;
+
+/**
+ * Implemented by in-memory adapters that can be dumped to an
+ * {@link InvoiceSnapshotFile}.
+ *
+ * <p>The returned view must be safe to iterate while writers keep going
+ * (e.g. {@code ConcurrentHashMap.values()}), so a snapshot never blocks the
+ * request path.</p>
+ */
+public interface Snapshottable {
+    Collection<Invoice> snapshotView();
+}
@@ -0,0 +1,62 @@
+/*  adapter/snapshot/Snapshotter.java  */
+package aibadcode.newinvoice.adapter.snapshot;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically dumps a {@link Snapshottable} store to disk on a background
+ * daemon thread.  Runs never overlap, scheduled (fixed <em>delay</em>) or
+ * manual ones alike, and {@link #close()} takes one last snapshot so a clean
+ * shutdown restarts warm.
+ */
+public final class Snapshotter implements AutoCloseable {
+
+    private final Snapshottable            source;
+    private final Path                     target;
+    private final ScheduledExecutorService worker;
+
+    public Snapshotter(Snapshottable source, Path target, Duration period) {
+        this.source = Objects.requireNonNull(source);
+        this.target = Objects.requireNonNull(target);
+        this.worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "invoice-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        long ms = period.toMillis();
+        worker.scheduleWithFixedDelay(this::snapshotQuietly, ms, ms, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Take a snapshot now on the caller's thread.  Waits for a scheduled
+     * snapshot in progress: both write the same temporary file.
+     */
+    public synchronized long snapshot() {
+        return InvoiceSnapshotFile.write(source.snapshotView(), target);
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (RuntimeException ex) {
+            // the previous snapshot stays in place; try again next period
+            System.err.println("[SNAPSHOT] " + target + " failed: " + ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        worker.shutdown();
+        try {
+            worker.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        snapshot();
+    }
+}
@@ -0,0 +1,38 @@
+#!/usr/bin/env bash
+# ---------------------------------------------------------------------------
+# appcds.sh – build an AppCDS archive for aibadcode.newinvoice.Main
+#
+#   ./appcds.sh <classpath>
+#
+# A training run in fast-start mode records every class loaded up to the
+# first served invoice and dumps them into app.jsa (JDK 13+ dynamic archive).
+# Later starts map that archive instead of parsing/verifying the same
+# application, HikariCP, JJWT and Jakarta Mail classes again.
+#
+# Then every wiring in the readme's startup table is timed RUNS times
+# (default 5).  Runs without app.jsa keep the JDK's default CDS archive, so
+# the difference is the application archive alone.
+# ---------------------------------------------------------------------------
+set -euo pipefail
+
+CP="${1:?usage: $0 <classpath>}"
+ARCHIVE="${APPCDS_ARCHIVE:-app.jsa}"
+RUNS="${RUNS:-5}"
+MAIN=aibadcode.newinvoice.Main
+
+# startup <label> <java args...> – print one "Startup" line per run
+startup() {
+    echo "== $1"
+    shift
+    for _ in $(seq "$RUNS"); do
+        java "$@" | grep 'Startup'
+    done
+}
+
+echo "== training run (writes $ARCHIVE)"
+java -XX:ArchiveClassesAtExit="$ARCHIVE" -cp "$CP" "$MAIN" --fast-start > /dev/null
+
+startup "eager, no archive"      -cp "$CP" "$MAIN"
+startup "fast-start, no archive" -cp "$CP" "$MAIN" --fast-start
+startup "eager + AppCDS"         -XX:SharedArchiveFile="$ARCHIVE" -cp "$CP" "$MAIN"
+startup "fast-start + AppCDS"    -XX:SharedArchiveFile="$ARCHIVE" -cp "$CP" "$MAIN" --fast-start
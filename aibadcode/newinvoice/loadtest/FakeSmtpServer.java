@@ -0,0 +1,120 @@
+/*  loadtest/FakeSmtpServer.java  */
+package aibadcode.newinvoice.loadtest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.mail.Session;
+
+/**
+ * <h2>FakeSmtpServer – Accept-everything SMTP sink</h2>
+ *
+ * <p>Listens on a loopback port, answers just enough of RFC 5321 (HELO/EHLO,
+ * MAIL, RCPT, DATA, RSET, NOOP, QUIT) for Jakarta Mail to deliver, and
+ * throws the message away.  Lets a load test exercise the real
+ * {@code JavaMailService} – connection set-up, MIME encoding, the SMTP
+ * dialogue – without a mail server.</p>
+ */
+final class FakeSmtpServer implements AutoCloseable {
+
+    private final ServerSocket    socket;
+    private final ExecutorService sessions = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "fake-smtp");
+        t.setDaemon(true);
+        return t;
+    });
+    private final LongAdder messages = new LongAdder();
+
+    FakeSmtpServer() {
+        try {
+            this.socket = new ServerSocket(0, 256, InetAddress.getLoopbackAddress());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        sessions.execute(this::acceptLoop);
+    }
+
+    int  port()     { return socket.getLocalPort(); }
+    long messages() { return messages.sum(); }
+
+    /** Plain, unauthenticated session pointing at this server. */
+    Session session() {
+        Properties p = new Properties();
+        p.put("mail.smtp.host", socket.getInetAddress().getHostAddress());
+        p.put("mail.smtp.port", String.valueOf(port()));
+        return Session.getInstance(p);
+    }
+
+    @Override
+    public void close() {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // shutting down anyway
+        }
+        sessions.shutdownNow();
+    }
+
+    /* ------------------------------------------------------------------ */
+
+    private void acceptLoop() {
+        while (!socket.isClosed()) {
+            try {
+                Socket client = socket.accept();
+                sessions.execute(() -> converse(client));
+            } catch (IOException ex) {
+                return;                                   // socket closed
+            }
+        }
+    }
+
+    private void converse(Socket client) {
+        try (Socket s = client;
+             BufferedReader in = new BufferedReader(
+                 new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII))) {
+            OutputStream out = s.getOutputStream();
+            reply(out, "220 fake-smtp ready");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String cmd = line.length() < 4 ? line.toUpperCase() : line.substring(0, 4).toUpperCase();
+                switch (cmd) {
+                    case "EHLO":
+                    case "HELO":
+                        reply(out, "250 fake-smtp");
+                        break;
+                    case "DATA":
+                        reply(out, "354 end with <CRLF>.<CRLF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // discard body
+                        }
+                        messages.increment();
+                        reply(out, "250 queued");
+                        break;
+                    case "QUIT":
+                        reply(out, "221 bye");
+                        return;
+                    default:                              // MAIL, RCPT, RSET, NOOP …
+                        reply(out, "250 ok");
+                }
+            }
+        } catch (IOException ex) {
+            // client went away
+        }
+    }
+
+    private static void reply(OutputStream out, String line) throws IOException {
+        out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+}
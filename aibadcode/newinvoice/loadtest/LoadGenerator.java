@@ -0,0 +1,368 @@
+/*  loadtest/LoadGenerator.java  */
+package aibadcode.newinvoice.loadtest;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import aibadcode.newinvoice.adapter.caching.InMemoryInvoiceCache;
+import aibadcode.newinvoice.adapter.jdbc.JdbcInvoiceRepository;
+import aibadcode.newinvoice.adapter.mail.JavaMailService;
+import aibadcode.newinvoice.adapter.notification.ConsoleMailService;
+import aibadcode.newinvoice.adapter.persistence.InMemoryInvoiceRepository;
+import aibadcode.newinvoice.adapter.security.JwtTokenService;
+import aibadcode.newinvoice.adapter.security.StaticTokenService;
+import aibadcode.newinvoice.model.Invoice;
+import aibadcode.newinvoice.port.InvoiceRepository;
+import aibadcode.newinvoice.port.MailService;
+import aibadcode.newinvoice.port.TokenService;
+import aibadcode.newinvoice.service.InvoiceService;
+
+/**
+ * <h2>LoadGenerator – Capacity test for {@link InvoiceService}</h2>
+ *
+ * <p>Drives {@code createInvoice}, {@code listUnpaid} and
+ * {@code issueApiToken} in a weighted mix against a freshly wired service and
+ * prints throughput and latency percentiles per operation.</p>
+ *
+ * <h3>Load models</h3>
+ * <ul>
+ *   <li><b>Closed loop</b> (default) – {@code --threads} workers call back to
+ *       back.  Latency is pure service time; a stall silently lowers the
+ *       offered load, so the tail is understated.</li>
+ *   <li><b>Open loop</b> ({@code --rate N}) – requests are due on a fixed
+ *       schedule of N per second spread over the workers.  Latency is
+ *       measured from the <em>intended</em> start, so time spent queued behind
+ *       a stall counts (coordinated-omission correction); service time is
+ *       reported next to it.</li>
+ * </ul>
+ *
+ * <h3>Options</h3>
+ * <pre>
+ *   --mix create=60,list=10,token=30   operation weights
+ *   --threads 8                        workers
+ *   --rate 0                           total requests/s, 0 = closed loop
+ *   --duration 30  --warmup 5          seconds
+ *   --repo memory|h2                   InMemoryInvoiceRepository or JDBC on H2
+ *   --mail console|smtp                ConsoleMailService or JavaMailService
+ *                                      against an in-process fake SMTP server
+ *   --tokens static|jwt
+ * </pre>
+ *
+ * <p>Console mail output is discarded while the test runs.</p>
+ *
+ * <pre>
+ *   java -cp &lt;classpath&gt; aibadcode.newinvoice.loadtest.LoadGenerator --repo h2 --rate 2000
+ * </pre>
+ */
+public final class LoadGenerator {
+
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+    private static final BigDecimal AMOUNT    = new BigDecimal("42.50");
+
+    private enum Op { CREATE, LIST, TOKEN }
+
+    private final InvoiceService svc;
+    private final Op[]           mix;                // one slot per weight unit
+    private final int            threads;
+    private final long           rate;
+    private final AtomicLong     ids = new AtomicLong();
+
+    private LoadGenerator(InvoiceService svc, Op[] mix, int threads, long rate) {
+        this.svc     = svc;
+        this.mix     = mix;
+        this.threads = threads;
+        this.rate    = rate;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opt = parse(args);
+        int    threads  = Integer.parseInt(opt.getOrDefault("threads", "8"));
+        long   rate     = Long.parseLong(opt.getOrDefault("rate", "0"));
+        int    duration = Integer.parseInt(opt.getOrDefault("duration", "30"));
+        int    warmup   = Integer.parseInt(opt.getOrDefault("warmup", "5"));
+        String repoKind = opt.getOrDefault("repo", "memory");
+        String mailKind = opt.getOrDefault("mail", "console");
+        String tokKind  = opt.getOrDefault("tokens", "static");
+        Op[]   mix      = mix(opt.getOrDefault("mix", "create=60,list=10,token=30"));
+
+        List<AutoCloseable> resources = new ArrayList<>();
+        PrintStream stdout = System.out;
+        try {
+            InvoiceService svc = new InvoiceService(
+                repository(repoKind, threads, resources),
+                new InMemoryInvoiceCache(),
+                mailService(mailKind, resources),
+                tokenService(tokKind));
+            LoadGenerator gen = new LoadGenerator(svc, mix, threads, rate);
+
+            stdout.printf("repo=%s mail=%s tokens=%s threads=%d %s mix=%s%n",
+                          repoKind, mailKind, tokKind, threads,
+                          rate > 0 ? "open-loop rate=" + rate + "/s" : "closed-loop",
+                          opt.getOrDefault("mix", "create=60,list=10,token=30"));
+            System.setOut(new PrintStream(new OutputStream() {
+                @Override public void write(int b) { }
+                @Override public void write(byte[] b, int off, int len) { }
+            }));
+
+            gen.run(TimeUnit.SECONDS.toNanos(warmup));
+            Result r = gen.run(TimeUnit.SECONDS.toNanos(duration));
+
+            System.setOut(stdout);
+            r.print(stdout, duration);
+            for (AutoCloseable res : resources) {
+                if (res instanceof FakeSmtpServer) {
+                    stdout.println("fake SMTP messages: " + ((FakeSmtpServer) res).messages());
+                }
+            }
+        } finally {
+            System.setOut(stdout);
+            for (AutoCloseable res : resources) res.close();
+        }
+    }
+
+    /* ------------------------------------------------------------------ */
+    /* Run                                                                */
+    /* ------------------------------------------------------------------ */
+
+    private Result run(long durationNanos) throws InterruptedException {
+        Worker[] workers = new Worker[threads];
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+        long end   = start + durationNanos;
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(start, end);
+            workers[i].setName("load-" + i);
+            workers[i].start();
+        }
+        Result total = new Result();
+        for (Worker w : workers) {
+            w.join();
+            total.add(w.result);
+        }
+        return total;
+    }
+
+    private final class Worker extends Thread {
+        private final long   start, end;
+        private final Result result = new Result();
+
+        Worker(long start, long end) {
+            this.start = start;
+            this.end   = end;
+            setDaemon(true);
+        }
+
+        @Override public void run() {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            long interval = rate > 0 ? Math.max(1, TimeUnit.SECONDS.toNanos(threads) / rate) : 0;
+            /* Stagger open-loop workers randomly within one interval.      */
+            long intended = start + rnd.nextLong(Math.max(1, interval));
+            while (true) {
+                long now = System.nanoTime();
+                if (rate > 0) {
+                    if (intended >= end) return;
+                    while (now < intended) {
+                        LockSupport.parkNanos(intended - now);
+                        now = System.nanoTime();
+                    }
+                } else {
+                    if (now >= end) return;
+                    intended = now;
+                }
+                Op op = mix[rnd.nextInt(mix.length)];
+                boolean ok = execute(op);
+                long done = System.nanoTime();
+                result.record(op, done - intended, done - now, ok);
+                intended += interval;
+            }
+        }
+    }
+
+    private boolean execute(Op op) {
+        try {
+            switch (op) {
+                case CREATE:
+                    svc.createInvoice(new Invoice(ids.incrementAndGet(), AMOUNT, "UNPAID",
+                                                  LocalDateTime.now()));
+                    break;
+                case LIST:
+                    svc.listUnpaid();
+                    break;
+                case TOKEN:
+                    svc.issueApiToken("client-" + (ids.get() & 63));
+                    break;
+            }
+            return true;
+        } catch (RuntimeException ex) {
+            return false;
+        }
+    }
+
+    /* ------------------------------------------------------------------ */
+    /* Results                                                            */
+    /* ------------------------------------------------------------------ */
+
+    /** Per-operation histograms: latency from intended start and service time. */
+    private static final class Result {
+        final LatencyHistogram[] latency = new LatencyHistogram[Op.values().length];
+        final LatencyHistogram[] service = new LatencyHistogram[Op.values().length];
+        final long[]             errors  = new long[Op.values().length];
+
+        Result() {
+            for (int i = 0; i < latency.length; i++) {
+                latency[i] = new LatencyHistogram();
+                service[i] = new LatencyHistogram();
+            }
+        }
+
+        void record(Op op, long latencyNanos, long serviceNanos, boolean ok) {
+            latency[op.ordinal()].record(latencyNanos);
+            service[op.ordinal()].record(serviceNanos);
+            if (!ok) errors[op.ordinal()]++;
+        }
+
+        void add(Result o) {
+            for (int i = 0; i < latency.length; i++) {
+                latency[i].add(o.latency[i]);
+                service[i].add(o.service[i]);
+                errors[i] += o.errors[i];
+            }
+        }
+
+        void print(PrintStream out, int seconds) {
+            out.printf("%-8s %-8s %10s %8s", "op", "measure", "ops/s", "errors");
+            for (double p : PERCENTILES) out.printf(" %9s", "p" + trim(p));
+            out.printf(" %9s   (ms)%n", "max");
+            LatencyHistogram allLatency = new LatencyHistogram();
+            LatencyHistogram allService = new LatencyHistogram();
+            long allErrors = 0;
+            for (Op op : Op.values()) {
+                int i = op.ordinal();
+                if (latency[i].count() == 0) continue;
+                row(out, op.name().toLowerCase(), "latency", latency[i], errors[i], seconds);
+                row(out, "",                      "service", service[i], errors[i], seconds);
+                allLatency.add(latency[i]);
+                allService.add(service[i]);
+                allErrors += errors[i];
+            }
+            row(out, "all", "latency", allLatency, allErrors, seconds);
+            row(out, "",    "service", allService, allErrors, seconds);
+        }
+
+        private static void row(PrintStream out, String op, String measure,
+                                LatencyHistogram h, long errors, int seconds) {
+            out.printf("%-8s %-8s %10.0f %8d", op, measure, (double) h.count() / seconds, errors);
+            for (double p : PERCENTILES) out.printf(" %9.3f", h.percentile(p) / 1e6);
+            out.printf(" %9.3f%n", h.max() / 1e6);
+        }
+
+        private static String trim(double p) {
+            return p == Math.rint(p) ? String.valueOf((long) p) : String.valueOf(p);
+        }
+    }
+
+    /* ------------------------------------------------------------------ */
+    /* Wiring                                                             */
+    /* ------------------------------------------------------------------ */
+
+    private static InvoiceRepository repository(String kind, int threads, List<AutoCloseable> res)
+            throws SQLException {
+        switch (kind) {
+            case "memory":
+                return new InMemoryInvoiceRepository();
+            case "h2":
+                HikariConfig cfg = new HikariConfig();
+                cfg.setJdbcUrl("jdbc:h2:mem:loadtest-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+                cfg.setUsername("sa");
+                cfg.setPassword("");
+                cfg.setPoolName("loadtest-pool");
+                cfg.setMaximumPoolSize(Math.max(2, threads));
+                HikariDataSource ds = new HikariDataSource(cfg);
+                res.add(ds);
+                try (Connection c = ds.getConnection(); Statement st = c.createStatement()) {
+                    st.execute("CREATE TABLE invoices (id BIGINT PRIMARY KEY, " +
+                               "amount DECIMAL(19,4), status VARCHAR(16), created TIMESTAMP)");
+                    st.execute("CREATE INDEX idx_invoices_status_created ON invoices(status, created)");
+                }
+                return new JdbcInvoiceRepository(ds);
+            default:
+                throw new IllegalArgumentException("--repo must be memory or h2: " + kind);
+        }
+    }
+
+    private static MailService mailService(String kind, List<AutoCloseable> res) {
+        switch (kind) {
+            case "console":
+                return new ConsoleMailService();
+            case "smtp":
+                FakeSmtpServer smtp = new FakeSmtpServer();
+                res.add(smtp);
+                return new JavaMailService(smtp.session(), "billing@example.com");
+            default:
+                throw new IllegalArgumentException("--mail must be console or smtp: " + kind);
+        }
+    }
+
+    private static TokenService tokenService(String kind) {
+        switch (kind) {
+            case "static":
+                return new StaticTokenService();
+            case "jwt":
+                byte[] secret = new byte[32];
+                new SecureRandom().nextBytes(secret);
+                return new JwtTokenService(new SecretKeySpec(secret, "HmacSHA256"), 60);
+            default:
+                throw new IllegalArgumentException("--tokens must be static or jwt: " + kind);
+        }
+    }
+
+    private static Op[] mix(String spec) {
+        Map<Op, Integer> weights = new HashMap<>();
+        int sum = 0;
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) throw new IllegalArgumentException("bad --mix entry: " + part);
+            Op op = Op.valueOf(kv[0].trim().toUpperCase());
+            int w = Integer.parseInt(kv[1].trim());
+            if (w < 0) throw new IllegalArgumentException("negative weight: " + part);
+            weights.merge(op, w, Integer::sum);
+            sum += w;
+        }
+        if (sum == 0) throw new IllegalArgumentException("--mix weights sum to 0");
+        Op[] slots = new Op[sum];
+        int i = 0;
+        for (Op op : Op.values()) {
+            for (int n = weights.getOrDefault(op, 0); n > 0; n--) slots[i++] = op;
+        }
+        return slots;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> opt = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("expected --name value at: " + args[i]);
+            }
+            opt.put(args[i].substring(2), args[++i]);
+        }
+        return opt;
+    }
+}
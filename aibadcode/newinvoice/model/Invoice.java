@@ -36,5 +36,10 @@ public final class Invoice {
     public BigDecimal      getAmount()    { return amount;    }
     public String          getStatus()    { return status;    }
     public LocalDateTime   getCreatedAt() { return createdAt; }
+
+    /** Copy with a different status – the entity itself stays immutable. */
+    public Invoice withStatus(String newStatus) {
+        return new Invoice(id, amount, newStatus, createdAt);
+    }
 }
 
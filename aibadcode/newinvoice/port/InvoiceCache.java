@@ -1,6 +1,7 @@
 /*  File: src/main/java/aibadcode/newinvoice/port/InvoiceCache.java  */
 package aibadcode.newinvoice.port;
 
+import java.util.Collection;
 import java.util.Optional;
 
 import aibadcode.newinvoice.model.Invoice;
@@ -15,4 +16,7 @@ import aibadcode.newinvoice.model.Invoice;
 public interface InvoiceCache {
     void put(Invoice invoice);
     Optional<Invoice> get(long id);
+
+    /** Drop several entries in one pass, e.g. after a bulk status change. */
+    void evictAll(Collection<Long> ids);
 }
@@ -1,6 +1,8 @@
 /*  File: src/main/java/aibadcode/newinvoice/port/InvoiceRepository.java  */
 package aibadcode.newinvoice.port;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import aibadcode.newinvoice.model.Invoice;
@@ -12,10 +14,20 @@ import aibadcode.newinvoice.model.Invoice;
  * <ul>
  *   <li><b>DIP (Dependency-Inversion)</b> – High-level policy will depend on
  *       this <em>interface</em>, never on JDBC/JPA.</li>
- *   <li><b>ISP (Interface-Segregation)</b> – Only two cohesive methods.</li>
+ *   <li><b>ISP (Interface-Segregation)</b> – A few cohesive methods.</li>
  * </ul>
  */
 public interface InvoiceRepository {
     void save(Invoice invoice);
     List<Invoice> findUnpaid();
+
+    /** Invoices with {@code status} created in {@code [from, to)}, oldest first. */
+    List<Invoice> findByStatusAndCreatedBetween(String status, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Set every listed invoice to {@code PAID} in one operation.
+     *
+     * @return number of invoices whose status actually changed
+     */
+    int markPaid(Collection<Long> ids);
 }
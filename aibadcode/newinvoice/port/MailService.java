@@ -1,6 +1,8 @@
 /*  File: src/main/java/aibadcode/newinvoice/port/MailService.java  */
 package aibadcode.newinvoice.port;
 
+import java.util.List;
+
 import aibadcode.newinvoice.model.Invoice;
 
 /**
@@ -14,4 +16,15 @@ import aibadcode.newinvoice.model.Invoice;
  */
 public interface MailService {
     void sendInvoiceCreated(Invoice invoice);
+
+    /**
+     * Several "invoice created" notifications for the same recipient.
+     * Adapters that can should send them as a single digest message.
+     */
+    default void sendInvoicesCreated(List<Invoice> invoices) {
+        for (Invoice inv : invoices) sendInvoiceCreated(inv);
+    }
+
+    /** Payment reminders for invoices that fell due, sent as one batch. */
+    void sendPaymentReminders(List<Invoice> due);
 }
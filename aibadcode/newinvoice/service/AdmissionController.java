@@ -0,0 +1,165 @@
+/*  service/AdmissionController.java  */
+package aibadcode.newinvoice.service;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * <h2>AdmissionController – Bulkhead + load shedding for one use case</h2>
+ *
+ * <p>Caps the number of in-flight calls with a fair {@link Semaphore}.  A
+ * caller that finds no free permit may wait in a short, bounded queue, but
+ * never longer than the latency target.  Once a queued caller has missed the
+ * target the controller is <em>overloaded</em> and rejects new arrivals
+ * immediately instead of letting them queue, until a caller again gets a
+ * permit without waiting.  Accepted requests therefore keep a flat latency
+ * while excess load is shed in microseconds.</p>
+ *
+ * <p>Rejections throw {@link OverloadedException}; the shed load is counted
+ * so it can be exported as metrics.</p>
+ *
+ * <p>With {@link Limits#UNLIMITED} (or any {@code maxInFlight} of
+ * {@code Integer.MAX_VALUE}) the controller is a pass-through: calls run
+ * directly, with no semaphore and no counting, and every metric stays 0.</p>
+ */
+public final class AdmissionController {
+
+    private final String        name;
+    private final Limits        limits;
+    private final Semaphore     permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final long          targetNanos;
+    private volatile boolean    overloaded;
+
+    private final LongAdder admitted      = new LongAdder();
+    private final LongAdder shedQueueFull = new LongAdder();
+    private final LongAdder shedLatency   = new LongAdder();
+
+    public AdmissionController(String name, Limits limits) {
+        this.name        = Objects.requireNonNull(name, "name");
+        this.limits      = Objects.requireNonNull(limits, "limits");
+        this.permits     = limits.isUnlimited() ? null : new Semaphore(limits.maxInFlight, true);
+        this.targetNanos = limits.latencyTarget.toNanos();
+    }
+
+    /** Run {@code op} if admitted, otherwise throw {@link OverloadedException}. */
+    public <T> T call(Supplier<T> op) {
+        if (permits == null) {
+            return op.get();
+        }
+        acquire();
+        try {
+            return op.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public void run(Runnable op) {
+        call(() -> { op.run(); return null; });
+    }
+
+    private void acquire() {
+        try {
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                overloaded = false;
+                admitted.increment();
+                return;
+            }
+            if (overloaded) {
+                shedLatency.increment();
+                throw new OverloadedException(name, "queueing delay above target");
+            }
+            if (queued.incrementAndGet() > limits.maxQueued) {
+                queued.decrementAndGet();
+                shedQueueFull.increment();
+                throw new OverloadedException(name, "wait queue full");
+            }
+            boolean ok;
+            try {
+                ok = permits.tryAcquire(targetNanos, TimeUnit.NANOSECONDS);
+            } finally {
+                queued.decrementAndGet();
+            }
+            if (!ok) {
+                overloaded = true;
+                shedLatency.increment();
+                throw new OverloadedException(name, "queueing delay above target");
+            }
+            admitted.increment();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new OverloadedException(name, "interrupted while queued");
+        }
+    }
+
+    /* ---------------------------------------------------------------- */
+    /* Metrics                                                          */
+    /* ---------------------------------------------------------------- */
+
+    public String  name()          { return name; }
+    public int     inFlight()      { return permits == null ? 0 : limits.maxInFlight - permits.availablePermits(); }
+    public int     queued()        { return queued.get(); }
+    public boolean isOverloaded()  { return overloaded; }
+    public long    admitted()      { return admitted.sum(); }
+    public long    shedQueueFull() { return shedQueueFull.sum(); }
+    public long    shedLatency()   { return shedLatency.sum(); }
+    public long    shed()          { return shedQueueFull() + shedLatency(); }
+
+    @Override public String toString() {
+        return name + "{inFlight=" + inFlight() + ", queued=" + queued() +
+               ", admitted=" + admitted() + ", shedQueueFull=" + shedQueueFull() +
+               ", shedLatency=" + shedLatency() + "}";
+    }
+
+    /* ---------------------------------------------------------------- */
+    /* Configuration                                                    */
+    /* ---------------------------------------------------------------- */
+
+    /** Immutable limits shared by the per-use-case controllers. */
+    public static final class Limits {
+
+        /** Effectively no admission control – the default wiring. */
+        public static final Limits UNLIMITED =
+                new Limits(Integer.MAX_VALUE, 0, Duration.ZERO);
+
+        final int      maxInFlight;
+        final int      maxQueued;
+        final Duration latencyTarget;
+
+        /**
+         * @param maxInFlight   concurrent calls allowed through
+         * @param maxQueued     callers allowed to wait for a permit
+         * @param latencyTarget longest a caller may wait before being shed;
+         *                      must be positive when {@code maxQueued > 0}
+         */
+        public Limits(int maxInFlight, int maxQueued, Duration latencyTarget) {
+            if (maxInFlight <= 0) throw new IllegalArgumentException("maxInFlight must be > 0");
+            if (maxQueued < 0)    throw new IllegalArgumentException("maxQueued must be >= 0");
+            Objects.requireNonNull(latencyTarget, "latencyTarget");
+            if (maxQueued > 0 && (latencyTarget.isZero() || latencyTarget.isNegative())) {
+                throw new IllegalArgumentException("latencyTarget must be > 0 when callers may queue");
+            }
+            this.maxInFlight   = maxInFlight;
+            this.maxQueued     = maxQueued;
+            this.latencyTarget = latencyTarget;
+        }
+
+        /** No cap on in-flight calls, so admission control has nothing to do. */
+        boolean isUnlimited() {
+            return maxInFlight == Integer.MAX_VALUE;
+        }
+    }
+
+    /** Thrown when a call is shed; callers should fail fast or retry later. */
+    public static final class OverloadedException extends RuntimeException {
+        public OverloadedException(String useCase, String reason) {
+            super(useCase + " rejected: " + reason);
+        }
+    }
+}
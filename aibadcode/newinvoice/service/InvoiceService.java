@@ -1,7 +1,11 @@
 /*  service/InvoiceService.java  */
 package aibadcode.newinvoice.service;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import aibadcode.newinvoice.model.Invoice;
@@ -22,6 +26,11 @@ import aibadcode.newinvoice.port.TokenService;
  *   <li><b>OCP</b> – Replace any adapter; methods here remain unchanged.</li>
  *   <li><b>DIP</b> – Depends solely on port interfaces.</li>
  * </ul>
+ *
+ * <p>Each use case runs behind its own {@link AdmissionController}, so a slow
+ * database sheds excess {@code createInvoice} calls with
+ * {@link AdmissionController.OverloadedException} instead of letting them
+ * pile up on the connection pool.</p>
  */
 public class InvoiceService {
 
@@ -30,27 +39,73 @@ public class InvoiceService {
     private final MailService       mail;
     private final TokenService      tokens;
 
+    private final AdmissionController createGate;
+    private final AdmissionController listGate;
+    private final AdmissionController tokenGate;
+    private final AdmissionController paidGate;
+
     public InvoiceService(InvoiceRepository repo,
                           InvoiceCache cache,
                           MailService mail,
                           TokenService tokens) {
+        this(repo, cache, mail, tokens, AdmissionController.Limits.UNLIMITED);
+    }
+
+    /**
+     * @param limits applied independently to every use case
+     */
+    public InvoiceService(InvoiceRepository repo,
+                          InvoiceCache cache,
+                          MailService mail,
+                          TokenService tokens,
+                          AdmissionController.Limits limits) {
         this.repo   = Objects.requireNonNull(repo);
         this.cache  = Objects.requireNonNull(cache);
         this.mail   = Objects.requireNonNull(mail);
         this.tokens = Objects.requireNonNull(tokens);
+        this.createGate = new AdmissionController("createInvoice", limits);
+        this.listGate   = new AdmissionController("listUnpaid",    limits);
+        this.tokenGate  = new AdmissionController("issueApiToken", limits);
+        this.paidGate   = new AdmissionController("markPaid",      limits);
     }
 
     public void createInvoice(Invoice inv) {
-        repo.save(inv);
-        cache.put(inv);
-        mail.sendInvoiceCreated(inv);   // side-effect delegated out
+        createGate.run(() -> {
+            repo.save(inv);
+            cache.put(inv);
+            mail.sendInvoiceCreated(inv);   // side-effect delegated out
+        });
     }
 
     public List<Invoice> listUnpaid() {
-        return repo.findUnpaid();
+        return listGate.call(repo::findUnpaid);
+    }
+
+    /**
+     * Settle many invoices at once, then evict them from the cache in a
+     * single pass so no stale {@code UNPAID} copy is served.
+     *
+     * @return number of invoices that changed status
+     */
+    public int markPaid(Collection<Long> ids) {
+        return paidGate.call(() -> {
+            int changed = repo.markPaid(ids);
+            cache.evictAll(ids);
+            return changed;
+        });
     }
 
     public String issueApiToken(String clientId) {
-        return tokens.issueToken(clientId);
+        return tokenGate.call(() -> tokens.issueToken(clientId));
+    }
+
+    /** Per-use-case controllers, keyed by method name, for metrics export. */
+    public Map<String, AdmissionController> admissionControllers() {
+        Map<String, AdmissionController> m = new LinkedHashMap<>();
+        m.put(createGate.name(), createGate);
+        m.put(listGate.name(),   listGate);
+        m.put(tokenGate.name(),  tokenGate);
+        m.put(paidGate.name(),   paidGate);
+        return Collections.unmodifiableMap(m);
     }
 }
@@ -0,0 +1,127 @@
+/*  service/ReminderScheduler.java  */
+package aibadcode.newinvoice.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import aibadcode.newinvoice.model.Invoice;
+import aibadcode.newinvoice.port.InvoiceRepository;
+import aibadcode.newinvoice.port.MailService;
+import aibadcode.newinvoice.util.HierarchicalTimingWheel;
+import aibadcode.newinvoice.util.HierarchicalTimingWheel.Timeout;
+
+/**
+ * <h2>ReminderScheduler – Event-driven payment reminders</h2>
+ *
+ * <p>Replaces the legacy "re-scan every unpaid invoice each minute" polling.
+ * Unpaid invoices are loaded <em>once</em> on {@link #start()} and each is
+ * parked on a {@link HierarchicalTimingWheel} at
+ * {@code createdAt + paymentTerm}.  A single ticker thread advances the
+ * wheel and hands whatever fell due to
+ * {@link MailService#sendPaymentReminders} as one batch, so the work per
+ * tick is proportional to the reminders actually due.</p>
+ *
+ * <p>{@link #schedule} and {@link #cancel} are O(1) and thread-safe.</p>
+ *
+ * <p>{@code createdAt} is a local date-time ({@code LocalDateTime.now()} in
+ * the system zone), so it is placed on the timeline in the clock's zone; the
+ * default clock is {@link Clock#systemDefaultZone()}.</p>
+ */
+public final class ReminderScheduler implements AutoCloseable {
+
+    private static final int WHEEL_SIZE = 512;
+
+    private final InvoiceRepository repo;
+    private final MailService       mail;
+    private final Duration          paymentTerm;
+    private final Duration          tick;
+    private final Clock             clock;
+
+    private final HierarchicalTimingWheel<Invoice> wheel;
+    private final Map<Long, Timeout<Invoice>>      byId = new HashMap<>();
+    private final ScheduledExecutorService         ticker;
+
+    public ReminderScheduler(InvoiceRepository repo, MailService mail,
+                             Duration paymentTerm, Duration tick) {
+        this(repo, mail, paymentTerm, tick, Clock.systemDefaultZone());
+    }
+
+    /** @param clock time source; its zone must be the one {@code createdAt} was taken in */
+    public ReminderScheduler(InvoiceRepository repo, MailService mail,
+                             Duration paymentTerm, Duration tick, Clock clock) {
+        this.repo        = Objects.requireNonNull(repo);
+        this.mail        = Objects.requireNonNull(mail);
+        this.paymentTerm = Objects.requireNonNull(paymentTerm);
+        this.tick        = Objects.requireNonNull(tick);
+        this.clock       = Objects.requireNonNull(clock);
+        this.wheel       = new HierarchicalTimingWheel<>(tick.toMillis(), WHEEL_SIZE, clock.millis());
+        this.ticker      = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "invoice-reminders");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Load every unpaid invoice once, then start ticking. */
+    public void start() {
+        for (Invoice inv : repo.findUnpaid()) {
+            schedule(inv);
+        }
+        long period = tick.toMillis();
+        ticker.scheduleAtFixedRate(this::tick, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /** Park an unpaid invoice until its reminder is due; O(1). */
+    public void schedule(Invoice inv) {
+        if (!"UNPAID".equals(inv.getStatus())) return;
+        long dueAt = inv.getCreatedAt().atZone(clock.getZone()).toInstant()
+                        .plus(paymentTerm).toEpochMilli();
+        synchronized (wheel) {
+            Timeout<Invoice> old = byId.put(inv.getId(), wheel.schedule(inv, dueAt));
+            if (old != null) wheel.cancel(old);
+        }
+    }
+
+    /** Drop the reminder of a paid invoice; O(1). */
+    public boolean cancel(long invoiceId) {
+        synchronized (wheel) {
+            Timeout<Invoice> t = byId.remove(invoiceId);
+            return t != null && wheel.cancel(t);
+        }
+    }
+
+    public int pending() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    /** Advance the wheel to "now" and mail whatever expired. */
+    void tick() {
+        List<Invoice> due = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advanceTo(clock.millis(), due::add);
+            for (Invoice inv : due) byId.remove(inv.getId());
+        }
+        if (due.isEmpty()) return;
+        try {
+            mail.sendPaymentReminders(due);
+        } catch (RuntimeException ex) {
+            // keep the ticker alive; a failed batch must not stop later ones
+            System.err.println("[REMINDER] batch of " + due.size() + " failed: " + ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+}
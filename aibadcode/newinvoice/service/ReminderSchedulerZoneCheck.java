@@ -0,0 +1,128 @@
+/*  service/ReminderSchedulerZoneCheck.java  */
+package aibadcode.newinvoice.service;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+
+import aibadcode.newinvoice.adapter.persistence.InMemoryInvoiceRepository;
+import aibadcode.newinvoice.model.Invoice;
+import aibadcode.newinvoice.port.MailService;
+
+/**
+ * <h2>ReminderSchedulerZoneCheck</h2>
+ *
+ * <p>Checks that a reminder falls due exactly {@code paymentTerm} after the
+ * invoice's local {@code createdAt}, whatever the zone: not a minute early,
+ * not a minute late.  Runs in UTC and in zones east and west of it, first with
+ * a manual clock and then with the default constructor after changing the
+ * JVM's default zone.  Prints each case and exits with status 1 if any is
+ * wrong.</p>
+ *
+ * <pre>
+ *   java -cp &lt;classpath&gt; aibadcode.newinvoice.service.ReminderSchedulerZoneCheck
+ * </pre>
+ */
+public final class ReminderSchedulerZoneCheck {
+
+    private static final Duration TERM = Duration.ofHours(1);
+    private static final String[] ZONES = { "UTC", "Asia/Kolkata", "America/Los_Angeles" };
+
+    private ReminderSchedulerZoneCheck() { }
+
+    public static void main(String[] args) {
+        boolean ok = true;
+        for (String zone : ZONES) {
+            ok &= manualClock(ZoneId.of(zone));
+        }
+        TimeZone original = TimeZone.getDefault();
+        try {
+            for (String zone : ZONES) {
+                TimeZone.setDefault(TimeZone.getTimeZone(zone));
+                ok &= defaultClock(zone);
+            }
+        } finally {
+            TimeZone.setDefault(original);
+        }
+        System.out.println(ok ? "all reminders on time" : "FAILED");
+        if (!ok) System.exit(1);
+    }
+
+    /** Due one term after creation: nothing a minute before, one reminder a minute after. */
+    private static boolean manualClock(ZoneId zone) {
+        ManualClock clock = new ManualClock(Instant.parse("2024-03-31T22:30:00Z"), zone);
+        Recorder mail = new Recorder();
+        ReminderScheduler scheduler = new ReminderScheduler(new InMemoryInvoiceRepository(), mail,
+                TERM, Duration.ofSeconds(1), clock);
+        try {
+            scheduler.schedule(invoice(LocalDateTime.now(clock)));
+            clock.advance(TERM.minusMinutes(1));
+            scheduler.tick();
+            int early = mail.reminders.size();
+            clock.advance(Duration.ofMinutes(2));
+            scheduler.tick();
+            int due = mail.reminders.size();
+            return report("manual clock, " + zone, early == 0 && due == 1);
+        } finally {
+            scheduler.close();
+        }
+    }
+
+    /** The default constructor must read createdAt in the JVM's default zone. */
+    private static boolean defaultClock(String zone) {
+        Recorder mail = new Recorder();
+        ReminderScheduler scheduler = new ReminderScheduler(new InMemoryInvoiceRepository(), mail,
+                TERM, Duration.ofSeconds(1));
+        try {
+            scheduler.schedule(invoice(LocalDateTime.now()));
+            scheduler.tick();
+            return report("default clock, " + zone,
+                    mail.reminders.isEmpty() && scheduler.pending() == 1);
+        } finally {
+            scheduler.close();
+        }
+    }
+
+    private static Invoice invoice(LocalDateTime createdAt) {
+        return new Invoice(1L, new BigDecimal("42.50"), "UNPAID", createdAt);
+    }
+
+    private static boolean report(String name, boolean ok) {
+        System.out.println((ok ? "ok    " : "WRONG ") + name);
+        return ok;
+    }
+
+    private static final class Recorder implements MailService {
+        final List<Invoice> reminders = new ArrayList<>();
+
+        @Override public void sendInvoiceCreated(Invoice invoice) { }
+
+        @Override public synchronized void sendPaymentReminders(List<Invoice> due) {
+            reminders.addAll(due);
+        }
+    }
+
+    private static final class ManualClock extends Clock {
+        private final ZoneId   zone;
+        private volatile Instant now;
+
+        ManualClock(Instant now, ZoneId zone) {
+            this.now  = now;
+            this.zone = zone;
+        }
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override public ZoneId  getZone()           { return zone; }
+        @Override public Clock   withZone(ZoneId z)  { return new ManualClock(now, z); }
+        @Override public Instant instant()           { return now; }
+    }
+}
@@ -0,0 +1,111 @@
+/*  File: src/main/java/aibadcode/newinvoice/util/AdaptivePoolLoadHarness.java  */
+package aibadcode.newinvoice.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * <h2>AdaptivePoolLoadHarness</h2>
+ *
+ * <p>Runs a synthetic month-end cycle against an in-memory H2 pool managed
+ * by {@link AdaptivePoolSizer}: quiet → spike → quiet.  Each client thread
+ * borrows a connection, runs a query and holds the connection for
+ * {@value #QUERY_MILLIS} ms to mimic a slower statement.  Once per second it
+ * prints the number of clients, pool target size, open/active connections,
+ * waiting threads and throughput, so the target can be seen following
+ * demand.</p>
+ *
+ * <pre>
+ *   java -cp &lt;classpath&gt; aibadcode.newinvoice.util.AdaptivePoolLoadHarness
+ * </pre>
+ */
+public final class AdaptivePoolLoadHarness {
+
+    private static final int   QUERY_MILLIS = 5;
+    private static final int   MAX_CLIENTS  = 40;
+    /** { clients, seconds } per phase. */
+    private static final int[][] PHASES     = { { 2, 8 }, { 32, 10 }, { 8, 6 }, { 2, 16 } };
+
+    private static volatile int     clients;
+    private static volatile boolean running = true;
+    private static final LongAdder  ops    = new LongAdder();
+    private static final LongAdder  errors = new LongAdder();
+
+    private AdaptivePoolLoadHarness() { }
+
+    public static void main(String[] args) throws Exception {
+        /* Let Hikari retire surplus idle connections quickly.               */
+        System.setProperty("com.zaxxer.hikari.housekeeping.periodMs", "1000");
+
+        HikariConfig cfg = new HikariConfig();
+        cfg.setJdbcUrl("jdbc:h2:mem:pool-harness;DB_CLOSE_DELAY=-1");
+        cfg.setUsername("sa");
+        cfg.setPassword("");
+        cfg.setPoolName("billing-pool");
+        cfg.setMaximumPoolSize(4);
+        cfg.setIdleTimeout(10_000);                 // Hikari's lower bound
+        cfg.setConnectionTimeout(5_000);
+
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(2, 32,
+            Duration.ofMillis(250), Duration.ofMillis(2), 2, 12);
+        sizer.configure(cfg);
+
+        try (HikariDataSource ds = new HikariDataSource(cfg)) {
+            sizer.start(ds);
+            for (int i = 0; i < MAX_CLIENTS; i++) {
+                int id = i;
+                Thread t = new Thread(() -> client(ds, id), "client-" + i);
+                t.setDaemon(true);
+                t.start();
+            }
+
+            HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+            System.out.printf("%4s %8s %7s %6s %7s %9s %8s%n",
+                              "sec", "clients", "target", "open", "active", "awaiting", "ops/s");
+            int second = 0;
+            for (int[] phase : PHASES) {
+                clients = phase[0];
+                for (int s = 0; s < phase[1]; s++) {
+                    Thread.sleep(1_000);
+                    System.out.printf("%4d %8d %7d %6d %7d %9d %8d%n", ++second, clients,
+                                      sizer.currentSize(), pool.getTotalConnections(),
+                                      pool.getActiveConnections(),
+                                      pool.getThreadsAwaitingConnection(), ops.sumThenReset());
+                }
+            }
+            running = false;
+            sizer.close();
+            System.out.println("errors: " + errors.sum());
+        }
+    }
+
+    private static void client(HikariDataSource ds, int id) {
+        while (running) {
+            try {
+                if (id >= clients) {
+                    Thread.sleep(20);
+                    continue;
+                }
+                try (Connection c = ds.getConnection();
+                     PreparedStatement ps = c.prepareStatement("SELECT 1");
+                     ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    Thread.sleep(QUERY_MILLIS);
+                }
+                ops.increment();
+            } catch (SQLException ex) {
+                errors.increment();
+            } catch (InterruptedException ex) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*  File: src/main/java/aibadcode/newinvoice/util/AdaptivePoolSizer.java  */
+package aibadcode.newinvoice.util;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * <h2>AdaptivePoolSizer – Resizes a Hikari pool to follow demand</h2>
+ *
+ * <p>Every {@code interval} it looks at one window of samples:</p>
+ * <ul>
+ *   <li><b>wait</b> – connection acquisition time and timeouts, plus
+ *       {@link HikariPoolMXBean#getThreadsAwaitingConnection()};</li>
+ *   <li><b>demand</b> – peak number of connections borrowed at once;</li>
+ *   <li><b>query latency</b> – mean time a connection was held.</li>
+ * </ul>
+ * <p>and moves {@code maximumPoolSize} through {@link HikariConfigMXBean}
+ * between {@code min} and {@code max}.</p>
+ *
+ * <p><b>Hysteresis</b> – the pool grows only after {@code growAfter}
+ * consecutive windows under pressure (threads waiting or mean wait above
+ * {@code waitTarget}) and shrinks only after {@code shrinkAfter} consecutive
+ * windows whose peak demand stayed below half the pool.  Anything in between
+ * resets both counters, so a pool sitting at the edge holds its size.  Growth
+ * is also held while query latency has doubled since the last growth – more
+ * connections will not help a saturated database.</p>
+ *
+ * <p>Lowering the maximum caps the pool at once; surplus connections are
+ * retired by Hikari as they sit idle ({@code minimumIdle} is set to
+ * {@code min}).  Every resize is logged.</p>
+ *
+ * <pre>
+ *   AdaptivePoolSizer sizer = new AdaptivePoolSizer(4, 40);
+ *   sizer.configure(cfg);                      // before the pool starts
+ *   HikariDataSource ds = new HikariDataSource(cfg);
+ *   sizer.start(ds);
+ * </pre>
+ */
+public final class AdaptivePoolSizer implements AutoCloseable {
+
+    private static final double LOW_UTILISATION = 0.5;
+
+    private final int      min;
+    private final int      max;
+    private final Duration interval;
+    private final long     waitTargetNanos;
+    private final int      growAfter;
+    private final int      shrinkAfter;
+
+    /* Window counters, fed by Hikari's metrics tracker.                    */
+    private final LongAdder       acquisitions = new LongAdder();
+    private final LongAdder       waitNanos    = new LongAdder();
+    private final LongAdder       timeouts     = new LongAdder();
+    private final LongAdder       usages       = new LongAdder();
+    private final LongAdder       usageMillis  = new LongAdder();
+    private final AtomicInteger   inFlight     = new AtomicInteger();
+    private final LongAccumulator peakInFlight = new LongAccumulator(Math::max, 0);
+
+    private final ScheduledExecutorService timer =
+        Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pool-sizer");
+            t.setDaemon(true);
+            return t;
+        });
+
+    /* Touched only by the timer thread.                                    */
+    private HikariDataSource ds;
+    private int    hot, cold;
+    private double usageAtLastGrow = Double.NaN;
+
+    /** Defaults: 1 s windows, 5 ms wait target, grow after 2, shrink after 30. */
+    public AdaptivePoolSizer(int min, int max) {
+        this(min, max, Duration.ofSeconds(1), Duration.ofMillis(5), 2, 30);
+    }
+
+    /**
+     * @param min         smallest maximumPoolSize ever set (also minimumIdle)
+     * @param max         largest maximumPoolSize ever set
+     * @param interval    length of one sampling window
+     * @param waitTarget  mean acquisition time regarded as pressure
+     * @param growAfter   consecutive pressure windows before growing
+     * @param shrinkAfter consecutive idle windows before shrinking
+     */
+    public AdaptivePoolSizer(int min, int max, Duration interval, Duration waitTarget,
+                             int growAfter, int shrinkAfter) {
+        if (min < 1 || max < min) {
+            throw new IllegalArgumentException("need 1 <= min <= max, got " + min + ".." + max);
+        }
+        if (growAfter < 1 || shrinkAfter < 1) {
+            throw new IllegalArgumentException("growAfter and shrinkAfter must be >= 1");
+        }
+        this.min             = min;
+        this.max             = max;
+        this.interval        = Objects.requireNonNull(interval);
+        this.waitTargetNanos = waitTarget.toNanos();
+        this.growAfter       = growAfter;
+        this.shrinkAfter     = shrinkAfter;
+    }
+
+    /**
+     * Install the metrics hook and initial bounds.  Must run before the
+     * {@link HikariDataSource} is created.
+     */
+    public void configure(HikariConfig cfg) {
+        cfg.setMetricsTrackerFactory(new Tracker());
+        cfg.setMinimumIdle(min);
+        cfg.setMaximumPoolSize(Math.max(min, Math.min(max, cfg.getMaximumPoolSize())));
+    }
+
+    /** Start sampling {@code ds}, which must have been built from a {@link #configure}d config. */
+    public void start(HikariDataSource ds) {
+        this.ds = Objects.requireNonNull(ds);
+        long period = interval.toMillis();
+        timer.scheduleAtFixedRate(() -> {
+            try {
+                sample();
+            } catch (RuntimeException ex) {
+                System.err.println("[POOL] sizing failed: " + ex);
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /** Current target size. */
+    public int currentSize() {
+        return ds == null ? min : ds.getHikariConfigMXBean().getMaximumPoolSize();
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+
+    /* ------------------------------------------------------------------ */
+
+    private void sample() {
+        HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+        if (pool == null) return;                         // not started yet
+        HikariConfigMXBean cfg = ds.getHikariConfigMXBean();
+
+        long acquired  = acquisitions.sumThenReset();
+        long waited    = waitNanos.sumThenReset();
+        long timedOut  = timeouts.sumThenReset();
+        long used      = usages.sumThenReset();
+        long usedMs    = usageMillis.sumThenReset();
+        long peak      = peakInFlight.getThenReset();
+        peakInFlight.accumulate(inFlight.get());          // carry over long borrows
+        int  awaiting  = pool.getThreadsAwaitingConnection();
+
+        double meanWaitMs  = acquired == 0 ? 0 : waited / 1e6 / acquired;
+        double meanUsageMs = used == 0 ? Double.NaN : (double) usedMs / used;
+        int    size        = cfg.getMaximumPoolSize();
+
+        boolean pressure = awaiting > 0 || timedOut > 0
+                || (acquired > 0 && waited / acquired > waitTargetNanos);
+        boolean slack    = !pressure && peak <= size * LOW_UTILISATION;
+
+        hot  = pressure ? hot + 1 : 0;
+        cold = slack    ? cold + 1 : 0;
+
+        String why = String.format("awaiting=%d, meanWait=%.1fms, timeouts=%d, peakActive=%d, meanQuery=%.1fms",
+                                   awaiting, meanWaitMs, timedOut, peak, meanUsageMs);
+
+        if (hot >= growAfter && size < max) {
+            hot = 0;
+            if (meanUsageMs > 2 * usageAtLastGrow) {
+                System.out.println("[POOL] " + cfg.getPoolName() + " holding at " + size +
+                                   ", query latency doubled since last growth (" + why + ")");
+                return;
+            }
+            int target = Math.min(max, size + Math.max(awaiting, Math.max(1, size / 2)));
+            resize(cfg, size, target, why);
+            if (!Double.isNaN(meanUsageMs)) usageAtLastGrow = meanUsageMs;
+        } else if (cold >= shrinkAfter && size > min) {
+            cold = 0;
+            int target = Math.max(min, size - Math.max(1, size / 4));
+            resize(cfg, size, target, why);
+            usageAtLastGrow = Double.NaN;
+        }
+    }
+
+    private static void resize(HikariConfigMXBean cfg, int from, int to, String why) {
+        cfg.setMaximumPoolSize(to);
+        System.out.println("[POOL] " + cfg.getPoolName() + " resized " + from + " -> " + to +
+                           " (" + why + ")");
+    }
+
+    /** Receives Hikari's per-connection callbacks. */
+    private final class Tracker implements MetricsTrackerFactory, IMetricsTracker {
+
+        @Override public IMetricsTracker create(String poolName, PoolStats stats) {
+            return this;
+        }
+
+        @Override public void recordConnectionAcquiredNanos(long nanos) {
+            acquisitions.increment();
+            waitNanos.add(nanos);
+            peakInFlight.accumulate(inFlight.incrementAndGet());
+        }
+
+        @Override public void recordConnectionUsageMillis(long millis) {
+            inFlight.decrementAndGet();
+            usages.increment();
+            usageMillis.add(millis);
+        }
+
+        @Override public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+    }
+}
@@ -1,6 +1,9 @@
 /*  File: src/main/java/aibadcode/newinvoice/util/DataSourceFactory.java  */
 package aibadcode.newinvoice.util;
 
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+
 import javax.sql.DataSource;
 
 import com.zaxxer.hikari.HikariConfig;
@@ -31,7 +34,15 @@ import com.zaxxer.hikari.HikariDataSource;
  *       “out-of-the-box” without installing anything.</li>
  * </ol>
  *
- * <p>Both code paths return a fully initialised, 10-connection pool.</p>
+ * <p>Both code paths return a fully initialised, 10-connection pool.  With
+ * <code>POOL_MAX_SIZE</code> (and optionally <code>POOL_MIN_SIZE</code>,
+ * default 2) set, an {@link AdaptivePoolSizer} starts from 10 and resizes the
+ * pool between those bounds as load changes; closing the returned pool also
+ * stops the sizer.</p>
+ *
+ * <p>{@link #fromEnv(boolean) fromEnv(true)} is the <em>fast-start</em>
+ * variant: the pool is created without blocking on the first connection and
+ * {@link #warmUpAsync(DataSource)} fills it on a background thread.</p>
  */
 public final class DataSourceFactory {
 
@@ -49,9 +60,24 @@ public final class DataSourceFactory {
      * @return configured, ready-to-use {@link HikariDataSource}
      */
     public static DataSource fromEnv() {
+        return fromEnv(false);
+    }
+
+    /**
+     * Same as {@link #fromEnv()}, optionally in fast-start mode.
+     *
+     * @param fastStart when {@code true} the pool starts empty
+     *                  (<code>initializationFailTimeout = -1</code>) so the
+     *                  constructor never waits for the database
+     * @return configured {@link HikariDataSource}
+     */
+    public static DataSource fromEnv(boolean fastStart) {
         HikariConfig cfg = new HikariConfig();
         cfg.setMaximumPoolSize(10);
         cfg.setPoolName("billing-pool");
+        if (fastStart) {
+            cfg.setInitializationFailTimeout(-1);
+        }
 
         String jdbcUrl = env("JDBC_URL", null);
 
@@ -79,13 +105,63 @@ public final class DataSourceFactory {
             // Add similar branches for Postgres, Oracle, etc. if desired.
         }
 
-        return new HikariDataSource(cfg);
+        String maxSize = env("POOL_MAX_SIZE", null);
+        if (maxSize == null) {
+            return new HikariDataSource(cfg);
+        }
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(
+            Integer.parseInt(env("POOL_MIN_SIZE", "2")), Integer.parseInt(maxSize));
+        sizer.configure(cfg);
+        HikariDataSource ds = new SizedDataSource(cfg, sizer);
+        sizer.start(ds);
+        return ds;
+    }
+
+    /**
+     * Borrow and return one connection on a daemon thread.  This loads the
+     * JDBC driver, opens the first physical connection and lets Hikari's
+     * housekeeper top the pool up while the application keeps starting.
+     *
+     * @return future completed once the first connection was obtained
+     */
+    public static CompletableFuture<Void> warmUpAsync(DataSource ds) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        Thread t = new Thread(() -> {
+            try {
+                ds.getConnection().close();
+                done.complete(null);
+            } catch (SQLException | RuntimeException ex) {
+                done.completeExceptionally(ex);
+            }
+        }, "billing-pool-warm-up");
+        t.setDaemon(true);
+        t.start();
+        return done;
     }
 
     /* ---------------------------------------------------------------------- */
     /* Private helpers                                                        */
     /* ---------------------------------------------------------------------- */
 
+    /** Pool that owns its {@link AdaptivePoolSizer}: {@link #close()} stops both. */
+    private static final class SizedDataSource extends HikariDataSource {
+        private final AdaptivePoolSizer sizer;
+
+        SizedDataSource(HikariConfig cfg, AdaptivePoolSizer sizer) {
+            super(cfg);
+            this.sizer = sizer;
+        }
+
+        @Override
+        public void close() {
+            try {
+                sizer.close();
+            } finally {
+                super.close();
+            }
+        }
+    }
+
     /**
      * Read an environment variable, providing a default when it isn’t set or
      * is empty.
@@ -0,0 +1,205 @@
+/*  File: src/main/java/aibadcode/newinvoice/util/HierarchicalTimingWheel.java  */
+package aibadcode.newinvoice.util;
+
+import java.util.function.Consumer;
+
+/**
+ * <h2>HierarchicalTimingWheel – O(1) timer queue</h2>
+ *
+ * <p>A ring of {@code wheelSize} buckets, each covering one tick.  Deadlines
+ * beyond the ring go to a lazily created <em>overflow</em> wheel whose tick is
+ * the full span of the wheel below it (seconds → minutes → hours …).  When
+ * the clock reaches a bucket on a higher level its entries cascade down into
+ * finer buckets, and eventually expire from level 0.</p>
+ *
+ * <ul>
+ *   <li>{@link #schedule} and {@link #cancel} are O(1) – a bucket is an
+ *       intrusive doubly-linked list.</li>
+ *   <li>{@link #advanceTo} costs one bucket visit per elapsed tick plus the
+ *       entries that actually expire or cascade, independent of how many
+ *       timers are pending.</li>
+ *   <li>Resolution is one tick: an entry fires in the tick that contains its
+ *       deadline.</li>
+ * </ul>
+ *
+ * <p><b>Not thread-safe.</b>  Callers serialise access (see
+ * {@code ReminderScheduler}).</p>
+ *
+ * @param <T> payload carried by each timer
+ */
+public final class HierarchicalTimingWheel<T> {
+
+    private final Level<T> root;
+    private final Bucket<T> due = new Bucket<>();   // scheduled already in the past
+    private int size;
+
+    /**
+     * @param tickMillis  resolution of the lowest level
+     * @param wheelSize   buckets per level
+     * @param startMillis current time; ticks are counted from here
+     */
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis must be > 0");
+        if (wheelSize  <= 1) throw new IllegalArgumentException("wheelSize must be > 1");
+        this.root = new Level<>(tickMillis, wheelSize, startMillis);
+    }
+
+    /** Insert a timer; O(1). */
+    public Timeout<T> schedule(T payload, long deadlineMillis) {
+        Timeout<T> t = new Timeout<>(payload, deadlineMillis);
+        place(t);
+        size++;
+        return t;
+    }
+
+    /** Remove a pending timer; O(1).  @return {@code false} if already fired or cancelled. */
+    public boolean cancel(Timeout<T> t) {
+        if (t.bucket == null) return false;
+        t.bucket.remove(t);
+        size--;
+        return true;
+    }
+
+    /**
+     * Move the clock forward and hand every expired payload to {@code sink}.
+     *
+     * @return number of expired timers
+     */
+    public int advanceTo(long nowMillis, Consumer<? super T> sink) {
+        int fired = drain(due, sink);
+        while (root.currentTime + root.tick <= nowMillis) {
+            long t = root.currentTime + root.tick;
+
+            /* Move the clock of every level that reaches a bucket boundary.  */
+            Level<T> top = root;
+            for (Level<T> l = root; l != null && t % l.tick == 0; l = l.overflow) {
+                l.currentTime = t;
+                top = l;
+            }
+            /* Cascade from the highest such level down to level 0.          */
+            for (Level<T> l = top; ; l = l.under) {
+                Bucket<T> b = l.bucketFor(t);
+                for (Timeout<T> e = b.pollFirst(); e != null; e = b.pollFirst()) {
+                    place(e);
+                }
+                if (l == root) break;
+            }
+            fired += drain(due, sink);
+        }
+        return fired;
+    }
+
+    public int  size()        { return size; }
+    public long currentTime() { return root.currentTime; }
+
+    /* ------------------------------------------------------------------ */
+
+    private void place(Timeout<T> t) {
+        Level<T> l = root;
+        if (t.deadline < l.currentTime + l.tick) {
+            due.addLast(t);
+            return;
+        }
+        /* An overflow level's clock is the lower clock rounded down to its
+           tick, so a deadline past the lower span never lands in the
+           overflow level's current (already visited) bucket.              */
+        while (t.deadline >= l.currentTime + l.interval) {
+            l = l.overflow();
+        }
+        l.bucketFor(t.deadline).addLast(t);
+    }
+
+    private int drain(Bucket<T> b, Consumer<? super T> sink) {
+        int n = 0;
+        for (Timeout<T> e = b.pollFirst(); e != null; e = b.pollFirst()) {
+            size--;
+            n++;
+            sink.accept(e.payload);
+        }
+        return n;
+    }
+
+    /* ------------------------------------------------------------------ */
+    /* Internals                                                          */
+    /* ------------------------------------------------------------------ */
+
+    /** Handle returned by {@link #schedule}; pass it to {@link #cancel}. */
+    public static final class Timeout<T> {
+        private final T    payload;
+        private final long deadline;
+        private Timeout<T> prev, next;
+        private Bucket<T>  bucket;
+
+        private Timeout(T payload, long deadline) {
+            this.payload  = payload;
+            this.deadline = deadline;
+        }
+
+        public T    payload()   { return payload;  }
+        public long deadline()  { return deadline; }
+        public boolean isPending() { return bucket != null; }
+    }
+
+    private static final class Level<T> {
+        final long tick;
+        final long interval;
+        final Bucket<T>[] buckets;
+        final Level<T> under;
+        long currentTime;
+        Level<T> overflow;
+
+        Level(long tick, int wheelSize, long startMillis) {
+            this(tick, wheelSize, startMillis, null);
+        }
+
+        @SuppressWarnings("unchecked")      // generic array: only Bucket<T> is ever stored
+        private Level(long tick, int wheelSize, long startMillis, Level<T> under) {
+            this.tick        = tick;
+            this.interval    = tick * wheelSize;
+            this.under       = under;
+            this.currentTime = startMillis - Math.floorMod(startMillis, tick);
+            this.buckets     = (Bucket<T>[]) new Bucket<?>[wheelSize];
+            for (int i = 0; i < wheelSize; i++) buckets[i] = new Bucket<>();
+        }
+
+        Level<T> overflow() {
+            if (overflow == null) {
+                overflow = new Level<>(interval, buckets.length, currentTime, this);
+            }
+            return overflow;
+        }
+
+        Bucket<T> bucketFor(long time) {
+            return buckets[(int) Math.floorMod(Math.floorDiv(time, tick), (long) buckets.length)];
+        }
+    }
+
+    /** Intrusive doubly-linked list with a sentinel head. */
+    private static final class Bucket<T> {
+        private final Timeout<T> head = new Timeout<>(null, 0);
+
+        Bucket() { head.prev = head.next = head; }
+
+        void addLast(Timeout<T> t) {
+            t.prev = head.prev;
+            t.next = head;
+            head.prev.next = t;
+            head.prev = t;
+            t.bucket = this;
+        }
+
+        void remove(Timeout<T> t) {
+            t.prev.next = t.next;
+            t.next.prev = t.prev;
+            t.prev = t.next = null;
+            t.bucket = null;
+        }
+
+        Timeout<T> pollFirst() {
+            Timeout<T> t = head.next;
+            if (t == head) return null;
+            remove(t);
+            return t;
+        }
+    }
+}
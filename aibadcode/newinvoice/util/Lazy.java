@@ -0,0 +1,68 @@
+/*  File: src/main/java/aibadcode/newinvoice/util/Lazy.java  */
+package aibadcode.newinvoice.util;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * <h2>Lazy – Thread-safe memoising supplier</h2>
+ *
+ * <p>Defers building an expensive object (connection pool, SMTP session,
+ * JWT key) until the first call to {@link #get()}.  Double-checked locking
+ * on a {@code volatile} field keeps the fast path lock-free once the value
+ * exists.</p>
+ *
+ * <p>{@link #warmUpAsync()} lets the caller start initialisation on a
+ * background daemon thread so the first real request usually finds the
+ * value ready.</p>
+ */
+public final class Lazy<T> implements Supplier<T> {
+
+    private final Supplier<? extends T> factory;
+    private volatile T value;
+
+    private Lazy(Supplier<? extends T> factory) {
+        this.factory = Objects.requireNonNull(factory, "factory");
+    }
+
+    public static <T> Lazy<T> of(Supplier<? extends T> factory) {
+        return new Lazy<>(factory);
+    }
+
+    @Override
+    public T get() {
+        T v = value;
+        if (v == null) {
+            synchronized (this) {
+                v = value;
+                if (v == null) {
+                    v = Objects.requireNonNull(factory.get(), "factory returned null");
+                    value = v;
+                }
+            }
+        }
+        return v;
+    }
+
+    /** @return {@code true} once the value has been built. */
+    public boolean isInitialized() { return value != null; }
+
+    /**
+     * Build the value on a daemon thread.  Failures are left in the returned
+     * future; the next {@link #get()} simply retries on the caller's thread.
+     */
+    public CompletableFuture<T> warmUpAsync() {
+        CompletableFuture<T> done = new CompletableFuture<>();
+        Thread t = new Thread(() -> {
+            try {
+                done.complete(get());
+            } catch (RuntimeException ex) {
+                done.completeExceptionally(ex);
+            }
+        }, "lazy-warm-up");
+        t.setDaemon(true);
+        t.start();
+        return done;
+    }
+}
@@ -0,0 +1,93 @@
+/*  File: src/main/java/aibadcode/newinvoice/util/MessageTemplate.java  */
+package aibadcode.newinvoice.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <h2>MessageTemplate – Parse once, render many</h2>
+ *
+ * <p>A template such as {@code "Invoice ${id} created"} is compiled into an
+ * array of segments: literal text and placeholders resolved through the
+ * {@link Field} map supplied at compile time.  Rendering walks that array
+ * and appends into a caller-supplied or per-thread reusable
+ * {@link StringBuilder}, so no parsing, no intermediate strings and no
+ * concatenation happen per message.</p>
+ *
+ * <p>Immutable and thread-safe once compiled.</p>
+ *
+ * @param <T> model type the placeholders read from
+ */
+public final class MessageTemplate<T> {
+
+    /** Appends one placeholder's value for {@code model}. */
+    @FunctionalInterface
+    public interface Field<T> {
+        void appendTo(StringBuilder out, T model);
+    }
+
+    private static final ThreadLocal<StringBuilder> BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private final String     source;
+    private final Field<T>[] segments;
+
+    private MessageTemplate(String source, Field<T>[] segments) {
+        this.source   = source;
+        this.segments = segments;
+    }
+
+    /**
+     * Compile {@code source}; placeholders are written {@code ${name}} and
+     * must be keys of {@code fields}.
+     *
+     * @throws IllegalArgumentException on unknown or unterminated placeholders
+     */
+    @SuppressWarnings("unchecked")      // generic array: every element is a Field<T>
+    public static <T> MessageTemplate<T> compile(String source, Map<String, Field<T>> fields) {
+        Objects.requireNonNull(source, "source");
+        List<Field<T>> parts = new ArrayList<>();
+        int pos = 0;
+        while (pos < source.length()) {
+            int open = source.indexOf("${", pos);
+            if (open < 0) {
+                parts.add(literal(source.substring(pos)));
+                break;
+            }
+            if (open > pos) parts.add(literal(source.substring(pos, open)));
+            int close = source.indexOf('}', open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("unterminated placeholder at " + open + ": " + source);
+            }
+            String name = source.substring(open + 2, close);
+            Field<T> f = fields.get(name);
+            if (f == null) {
+                throw new IllegalArgumentException("unknown placeholder ${" + name + "} in: " + source);
+            }
+            parts.add(f);
+            pos = close + 1;
+        }
+        return new MessageTemplate<>(source, (Field<T>[]) parts.toArray(new Field<?>[0]));
+    }
+
+    private static <T> Field<T> literal(String text) {
+        return (out, model) -> out.append(text);
+    }
+
+    /** Append the rendered text to {@code out}; allocation-free apart from field values. */
+    public StringBuilder appendTo(StringBuilder out, T model) {
+        for (Field<T> f : segments) f.appendTo(out, model);
+        return out;
+    }
+
+    /** Render through this thread's reusable buffer. */
+    public String render(T model) {
+        StringBuilder sb = BUFFER.get();
+        sb.setLength(0);
+        return appendTo(sb, model).toString();
+    }
+
+    @Override public String toString() { return source; }
+}
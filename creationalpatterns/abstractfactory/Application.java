@@ -2,19 +2,47 @@ package creationalpatterns.abstractfactory;
 
 /**
  * Client class that uses GUIFactory to create and render GUI components.
+ *
+ * <p>A frame is drawn into a {@link FrameBuffer} and written out in one go,
+ * however many widgets it has.</p>
  */
 public class Application {
-    private final Button button;
-    private final Checkbox checkbox;
+    private final Button[] buttons;
+    private final Checkbox[] checkboxes;
+    private final FrameBuffer frame;
 
     public Application(GUIFactory factory) {
-        this.button = factory.createButton();
-        this.checkbox = factory.createCheckbox();
+        this(factory, 1, new FrameBuffer());
     }
 
+    /**
+     * @param pairs How many button and checkbox pairs the UI has.
+     * @param frame Where frames are drawn and flushed.
+     */
+    public Application(GUIFactory factory, int pairs, FrameBuffer frame) {
+        this.buttons = new Button[pairs];
+        this.checkboxes = new Checkbox[pairs];
+        for (int i = 0; i < pairs; i++) {
+            buttons[i] = factory.createButton();
+            checkboxes[i] = factory.createCheckbox();
+        }
+        this.frame = frame;
+    }
+
+    // Draw every widget off-screen, then write the frame once
     public void renderUI() {
-        button.render();
-        checkbox.render();
+        for (int i = 0; i < buttons.length; i++) {
+            buttons[i].render(frame);
+            checkboxes[i].render(frame);
+        }
+        frame.flush();
     }
-}
 
+    // The old way: every widget prints its own line to the console
+    public void renderUIDirect() {
+        for (int i = 0; i < buttons.length; i++) {
+            buttons[i].render();
+            checkboxes[i].render();
+        }
+    }
+}
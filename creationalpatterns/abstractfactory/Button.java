@@ -6,6 +6,12 @@ package creationalpatterns.abstractfactory;
  */
 public interface Button {
     void render(); // Method to render the button
+    // Render into a target instead of the console. Products written before
+    // RenderTarget existed still compile: they fall back to render(), which
+    // ignores the target and prints to the console.
+    default void render(RenderTarget target) {
+        render();
+    }
 }
 
 
@@ -6,4 +6,10 @@ package creationalpatterns.abstractfactory;
  */
 public interface Checkbox {
     void render(); // Method to render the checkbox
+    // Render into a target instead of the console. Products written before
+    // RenderTarget existed still compile: they fall back to render(), which
+    // ignores the target and prints to the console.
+    default void render(RenderTarget target) {
+        render();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package creationalpatterns.abstractfactory;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Frame render time for 10k to 1M widgets: each widget printing its own line
+ * ({@link Application#renderUIDirect()}) versus drawing into a
+ * {@link FrameBuffer} that is written once per frame ({@link Application#renderUI()}).
+ *
+ * <p>Output goes to a temporary file rather than the terminal, with
+ * {@code System.out} in auto-flush mode as it is on a console, so each
+ * direct {@code println} is one write call.  A frame takes milliseconds,
+ * so a plain {@code main} times whole frames; every case renders a warm-up
+ * frame before the measured ones.</p>
+ */
+public class FrameBenchmark {
+    private static final int FRAMES = 3;
+
+    public static void main(String[] args) throws IOException {
+        PrintStream console = System.out;
+        Path file = Files.createTempFile("frames", ".txt");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             PrintStream direct = new PrintStream(new FileOutputStream(file.toFile(), true), true)) {
+            console.printf("%-10s %16s %16s%n", "widgets", "direct ms/frame", "buffered ms/frame");
+            for (int widgets : new int[] {10_000, 100_000, 1_000_000}) {
+                Application app = new Application(new WindowsFactory(), widgets / 2, new FrameBuffer(channel));
+                System.setOut(direct);
+                double directMillis = time(app::renderUIDirect, widgets >= 1_000_000 ? 1 : FRAMES);
+                double bufferedMillis = time(app::renderUI, FRAMES);
+                System.setOut(console);
+                console.printf("%-10d %16.2f %16.2f%n", widgets, directMillis, bufferedMillis);
+                channel.truncate(0);
+            }
+        } finally {
+            System.setOut(console);
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static double time(Runnable frame, int frames) {
+        frame.run();                                  // warm-up
+        long start = System.nanoTime();
+        for (int i = 0; i < frames; i++) {
+            frame.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / frames;
+    }
+}
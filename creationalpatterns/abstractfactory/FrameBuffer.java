@@ -0,0 +1,104 @@
+package creationalpatterns.abstractfactory;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Off-screen render target: widgets draw into a byte buffer, and
+ * {@link #flush()} writes the whole frame with one call and starts the next.
+ *
+ * <p>A frame of a thousand widgets then costs one write instead of a thousand
+ * synchronised {@code println}s.  The buffer grows to the largest frame and
+ * is reused, so steady-state frames allocate no byte arrays.  Lines are
+ * encoded as UTF-8 by the JDK's encoder.  Not thread-safe: one thread renders
+ * a frame.</p>
+ */
+public class FrameBuffer implements RenderTarget {
+    private final WritableByteChannel out;
+    private final boolean stdout;
+    // Unpaired surrogates become '?'
+    private final CharsetEncoder utf8 = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private byte[] bytes = new byte[8192];
+    private ByteBuffer encoded = ByteBuffer.wrap(bytes);    // encoder's view of bytes
+    private int size;
+
+    /** A frame buffer that flushes to standard output. */
+    public FrameBuffer() {
+        this(Channels.newChannel(new FileOutputStream(FileDescriptor.out)), true);
+    }
+
+    public FrameBuffer(WritableByteChannel out) {
+        this(out, false);
+    }
+
+    private FrameBuffer(WritableByteChannel out, boolean stdout) {
+        this.out = out;
+        this.stdout = stdout;
+    }
+
+    @Override
+    public void drawLine(CharSequence text) {
+        int length = text.length();
+        ensure(size + length + 1);
+        int i = 0;
+        for (char c; i < length && (c = text.charAt(i)) < 0x80; i++) {
+            bytes[size++] = (byte) c;                      // ASCII, the common case, copied directly
+        }
+        if (i < length) {
+            encode(CharBuffer.wrap(text, i, length));
+        }
+        bytes[size++] = '\n';
+    }
+
+    private void encode(CharBuffer chars) {
+        encoded.limit(bytes.length - 1).position(size);   // room for the '\n'
+        utf8.reset();
+        while (utf8.encode(chars, encoded, true).isOverflow()) {
+            int written = encoded.position();
+            ensure(bytes.length + 1);
+            encoded.limit(bytes.length - 1).position(written);
+        }
+        utf8.flush(encoded);
+        size = encoded.position();
+    }
+
+    /** Bytes drawn since the last flush. */
+    public int size() {
+        return size;
+    }
+
+    /** Write the frame with a single call and clear the buffer for the next one. */
+    public void flush() {
+        if (stdout) {
+            System.out.flush();                       // keep order with anything printed before
+        }
+        ByteBuffer frame = ByteBuffer.wrap(bytes, 0, size);
+        try {
+            while (frame.hasRemaining()) {
+                out.write(frame);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot write frame", e);
+        }
+        size = 0;
+    }
+
+    private void ensure(int capacity) {
+        if (capacity > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+            encoded = ByteBuffer.wrap(bytes);
+        }
+    }
+}
@@ -1,9 +1,17 @@
 package creationalpatterns.abstractfactory;
 
 // Concrete Product: MacOS Button
+// Stateless, so a factory can hand out one shared instance
 public class MacOSButton implements Button {
+    private static final String TEXT = "Rendering a MacOS button.";
+
     @Override
     public void render() {
-        System.out.println("Rendering a MacOS button.");
+        System.out.println(TEXT);
+    }
+
+    @Override
+    public void render(RenderTarget target) {
+        target.drawLine(TEXT);
     }
 }
\ No newline at end of file
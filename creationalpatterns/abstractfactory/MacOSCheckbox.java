@@ -1,9 +1,17 @@
 package creationalpatterns.abstractfactory;
 
 // Concrete Product: MacOS Checkbox
+// Stateless, so a factory can hand out one shared instance
 public class MacOSCheckbox implements Checkbox {
+    private static final String TEXT = "Rendering a MacOS checkbox.";
+
     @Override
     public void render() {
-        System.out.println("Rendering a MacOS checkbox.");
+        System.out.println(TEXT);
+    }
+
+    @Override
+    public void render(RenderTarget target) {
+        target.drawLine(TEXT);
     }
 }
\ No newline at end of file
@@ -2,13 +2,17 @@ package creationalpatterns.abstractfactory;
 
 // Concrete Factory: MacOS Factory
 public class MacOSFactory implements GUIFactory {
+    // The widgets are stateless: every call returns the same instance
+    private final Button button = new MacOSButton();
+    private final Checkbox checkbox = new MacOSCheckbox();
+
     @Override
     public Button createButton() {
-        return new MacOSButton(); // Create a MacOS Button
+        return button; // The MacOS Button
     }
 
     @Override
     public Checkbox createCheckbox() {
-        return new MacOSCheckbox(); // Create a MacOS Checkbox
+        return checkbox; // The MacOS Checkbox
     }
 }
\ No newline at end of file
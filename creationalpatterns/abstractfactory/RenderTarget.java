@@ -0,0 +1,9 @@
+package creationalpatterns.abstractfactory;
+
+/**
+ * Where widgets draw themselves instead of straight to the console, such as
+ * the off-screen {@link FrameBuffer} that is written out once per frame.
+ */
+public interface RenderTarget {
+    void drawLine(CharSequence text); // Draw one line of output
+}
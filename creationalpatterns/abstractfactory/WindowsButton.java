@@ -1,10 +1,18 @@
 package creationalpatterns.abstractfactory;
 
 // Concrete Product: Windows Button
+// Stateless, so a factory can hand out one shared instance
 public class WindowsButton implements Button {
+    private static final String TEXT = "Rendering a Windows button.";
+
     @Override
     public void render() {
-        System.out.println("Rendering a Windows button.");
+        System.out.println(TEXT);
+    }
+
+    @Override
+    public void render(RenderTarget target) {
+        target.drawLine(TEXT);
     }
 }
 
@@ -1,9 +1,17 @@
 package creationalpatterns.abstractfactory;
 
 // Concrete Product: Windows Checkbox
+// Stateless, so a factory can hand out one shared instance
 public class WindowsCheckbox implements Checkbox {
+    private static final String TEXT = "Rendering a Windows checkbox.";
+
     @Override
     public void render() {
-        System.out.println("Rendering a Windows checkbox.");
+        System.out.println(TEXT);
+    }
+
+    @Override
+    public void render(RenderTarget target) {
+        target.drawLine(TEXT);
     }
 }
\ No newline at end of file
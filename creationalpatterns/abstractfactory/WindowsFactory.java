@@ -2,13 +2,17 @@ package creationalpatterns.abstractfactory;
 
 // Concrete Factory: Windows Factory
 public class WindowsFactory implements GUIFactory {
+    // The widgets are stateless: every call returns the same instance
+    private final Button button = new WindowsButton();
+    private final Checkbox checkbox = new WindowsCheckbox();
+
     @Override
     public Button createButton() {
-        return new WindowsButton(); // Create a Windows Button
+        return button; // The Windows Button
     }
 
     @Override
     public Checkbox createCheckbox() {
-        return new WindowsCheckbox(); // Create a Windows Checkbox
+        return checkbox; // The Windows Checkbox
     }
 }
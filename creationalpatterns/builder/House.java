@@ -2,44 +2,52 @@ package creationalpatterns.builder;
 
 /**
  * The product class representing a House.
+ *
+ * <p>The components live in an interned {@link HouseSpec}, shared by every
+ * house built the same way.</p>
  */
 public class House {
-    private final String foundation;
-    private final String walls;
-    private final String roof;
-    private final String interior;
+    private final HouseSpec spec;
 
     // Private constructor to enforce the use of the Builder
     private House(Builder builder) {
-        this.foundation = builder.foundation;
-        this.walls = builder.walls;
-        this.roof = builder.roof;
-        this.interior = builder.interior;
+        this.spec = builder.toSpec();
+    }
+
+    // For HouseBatch, which stores specs rather than houses
+    House(HouseSpec spec) {
+        this.spec = spec;
     }
 
     // Getters for all fields
     public String getFoundation() {
-        return foundation;
+        return spec.getFoundation();
     }
 
     public String getWalls() {
-        return walls;
+        return spec.getWalls();
     }
 
     public String getRoof() {
-        return roof;
+        return spec.getRoof();
     }
 
     public String getInterior() {
-        return interior;
+        return spec.getInterior();
+    }
+
+    public HouseSpec getSpec() {
+        return spec;
     }
 
     // Builder static nested class
+    // Not thread-safe: use one builder per thread
     public static class Builder {
         private String foundation;
         private String walls;
         private String roof;
         private String interior;
+        private HouseSpec last;     // spec of the previous build, reused when nothing changed
 
         public Builder setFoundation(String foundation) {
             this.foundation = foundation;
@@ -61,9 +69,28 @@ public class House {
             return this;
         }
 
+        // Clear every component, so a reused builder starts from an empty house
+        public Builder reset() {
+            this.foundation = null;
+            this.walls = null;
+            this.roof = null;
+            this.interior = null;
+            return this;
+        }
+
         // Method to build the House object
         public House build() {
             return new House(this);
         }
+
+        // The interned spec for the current components, without creating a House
+        public HouseSpec toSpec() {
+            HouseSpec spec = last;
+            if (spec == null || !spec.sameComponents(foundation, walls, roof, interior)) {
+                spec = HouseSpec.of(foundation, walls, roof, interior);
+                last = spec;
+            }
+            return spec;
+        }
     }
 }
@@ -0,0 +1,145 @@
+package creationalpatterns.builder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A large batch of houses stored as columns rather than objects: one
+ * 16-bit column per component, each holding an index into that component's
+ * dictionary of distinct values.
+ *
+ * <p>A million houses take 8 MB of columns instead of a million House
+ * objects, and a question about one component, such as {@link #count}, scans
+ * one dense column.  {@link #get} materialises a single house when it is
+ * needed.  Each component may have at most 65536 distinct values in one
+ * batch.</p>
+ */
+public final class HouseBatch {
+
+    /** The columns of a batch. */
+    public enum Component {
+        FOUNDATION(HouseSpec::getFoundation),
+        WALLS(HouseSpec::getWalls),
+        ROOF(HouseSpec::getRoof),
+        INTERIOR(HouseSpec::getInterior);
+
+        private final Function<HouseSpec, String> getter;
+
+        Component(Function<HouseSpec, String> getter) {
+            this.getter = getter;
+        }
+    }
+
+    private static final Component[] COMPONENTS = Component.values();
+
+    private final int size;
+    private final char[][] columns;          // columns[component][house] = dictionary index
+    private final String[][] dictionaries;   // dictionaries[component][index] = value (may be null)
+
+    private HouseBatch(int size, char[][] columns, String[][] dictionaries) {
+        this.size = size;
+        this.columns = columns;
+        this.dictionaries = dictionaries;
+    }
+
+    /** Encode houses given by their specs; {@code specs} is only read. */
+    static HouseBatch of(HouseSpec[] specs) {
+        List<List<String>> values = new ArrayList<>();
+        List<Map<String, Integer>> indexes = new ArrayList<>();
+        for (int c = 0; c < COMPONENTS.length; c++) {
+            values.add(new ArrayList<>());
+            indexes.add(new HashMap<>());
+        }
+        // Distinct specs are few: work out their column values once each
+        Map<HouseSpec, char[]> encoded = new IdentityHashMap<>();
+        char[][] columns = new char[COMPONENTS.length][specs.length];
+        for (int i = 0; i < specs.length; i++) {
+            char[] row = encoded.get(specs[i]);
+            if (row == null) {
+                row = new char[COMPONENTS.length];
+                for (int c = 0; c < COMPONENTS.length; c++) {
+                    row[c] = index(COMPONENTS[c].getter.apply(specs[i]), values.get(c), indexes.get(c));
+                }
+                encoded.put(specs[i], row);
+            }
+            for (int c = 0; c < COMPONENTS.length; c++) {
+                columns[c][i] = row[c];
+            }
+        }
+        String[][] dictionaries = new String[COMPONENTS.length][];
+        for (int c = 0; c < COMPONENTS.length; c++) {
+            dictionaries[c] = values.get(c).toArray(new String[0]);
+        }
+        return new HouseBatch(specs.length, columns, dictionaries);
+    }
+
+    private static char index(String value, List<String> values, Map<String, Integer> indexes) {
+        Integer index = indexes.get(value);
+        if (index == null) {
+            if (values.size() > Character.MAX_VALUE) {
+                throw new IllegalArgumentException("more than 65536 distinct values for one component");
+            }
+            index = values.size();
+            values.add(value);
+            indexes.put(value, index);
+        }
+        return (char) index.intValue();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** One component of one house. */
+    public String get(Component component, int house) {
+        return dictionaries[component.ordinal()][columns[component.ordinal()][checkIndex(house)]];
+    }
+
+    /** The house at this position, backed by its interned spec. */
+    public House get(int house) {
+        checkIndex(house);
+        return new House(HouseSpec.of(
+                get(Component.FOUNDATION, house), get(Component.WALLS, house),
+                get(Component.ROOF, house), get(Component.INTERIOR, house)));
+    }
+
+    /** Houses whose component equals {@code value} ({@code null} counts houses without it). */
+    public int count(Component component, String value) {
+        String[] dictionary = dictionaries[component.ordinal()];
+        int index = -1;
+        for (int i = 0; i < dictionary.length; i++) {
+            if (value == null ? dictionary[i] == null : value.equals(dictionary[i])) {
+                index = i;
+                break;
+            }
+        }
+        if (index < 0) {
+            return 0;
+        }
+        int count = 0;
+        for (char c : columns[component.ordinal()]) {
+            if (c == index) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** The distinct values one component takes in this batch. */
+    public List<String> distinct(Component component) {
+        return Collections.unmodifiableList(Arrays.asList(dictionaries[component.ordinal()].clone()));
+    }
+
+    private int checkIndex(int house) {
+        if (house < 0 || house >= size) {
+            throw new IndexOutOfBoundsException("house " + house + ", size " + size);
+        }
+        return house;
+    }
+}
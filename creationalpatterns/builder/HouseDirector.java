@@ -1,9 +1,29 @@
 package creationalpatterns.builder;
 
+import java.util.Objects;
+import java.util.stream.IntStream;
+
 /**
  * Director class to manage the building process of a House.
+ *
+ * <p>The single-house methods use the builder passed in and are not
+ * thread-safe.  {@link #constructBatch} builds many houses in parallel, each
+ * worker with its own builder, and returns them as a compact
+ * {@link HouseBatch}.</p>
  */
 public class HouseDirector {
+    // Houses built by one parallel task, with one builder
+    private static final int BATCH_SLICE = 4096;
+
+    /** How to build house number {@code index} of a batch; the builder starts empty. */
+    @FunctionalInterface
+    public interface Plan {
+        void apply(int index, House.Builder builder);
+    }
+
+    public static final Plan BASIC = (index, builder) -> basic(builder);
+    public static final Plan LUXURY = (index, builder) -> luxury(builder);
+
     private final House.Builder builder;
 
     public HouseDirector(House.Builder builder) {
@@ -12,20 +32,48 @@ public class HouseDirector {
 
     // Construct a basic house
     public House constructBasicHouse() {
+        return basic(builder.reset()).build();
+    }
+
+    // Construct a luxury house
+    public House constructLuxuryHouse() {
+        return luxury(builder.reset()).build();
+    }
+
+    /**
+     * Build {@code count} houses in parallel on the common fork-join pool.
+     *
+     * @param plan called once per house, possibly from several threads at once
+     */
+    public static HouseBatch constructBatch(int count, Plan plan) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must be >= 0");
+        }
+        Objects.requireNonNull(plan);
+        HouseSpec[] specs = new HouseSpec[count];
+        int slices = (count + BATCH_SLICE - 1) / BATCH_SLICE;
+        IntStream.range(0, slices).parallel().forEach(slice -> {
+            House.Builder own = new House.Builder();
+            for (int i = slice * BATCH_SLICE, end = Math.min(count, i + BATCH_SLICE); i < end; i++) {
+                plan.apply(i, own.reset());
+                specs[i] = own.toSpec();
+            }
+        });
+        return HouseBatch.of(specs);
+    }
+
+    private static House.Builder basic(House.Builder builder) {
         return builder
                 .setFoundation("Concrete Foundation")
                 .setWalls("Wooden Walls")
-                .setRoof("Shingle Roof")
-                .build();
+                .setRoof("Shingle Roof");
     }
 
-    // Construct a luxury house
-    public House constructLuxuryHouse() {
+    private static House.Builder luxury(House.Builder builder) {
         return builder
                 .setFoundation("Stone Foundation")
                 .setWalls("Marble Walls")
                 .setRoof("Slate Roof")
-                .setInterior("Modern Interior")
-                .build();
+                .setInterior("Modern Interior");
     }
 }
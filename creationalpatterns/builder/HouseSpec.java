@@ -0,0 +1,162 @@
+package creationalpatterns.builder;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Immutable set of components a House is made of.
+ *
+ * <p>Specs are interned: {@link #of} returns the same instance for the same
+ * components, so a million houses built from a handful of designs share a
+ * handful of specs instead of holding four strings each.  The intern table
+ * holds specs through weak references, so a spec no house uses any more is
+ * garbage collected and its entry removed; it is created afresh if those
+ * components come up again.</p>
+ */
+public final class HouseSpec {
+    private static final ConcurrentMap<Components, SpecRef> INTERNED = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<HouseSpec> COLLECTED = new ReferenceQueue<>();
+
+    private final String foundation;
+    private final String walls;
+    private final String roof;
+    private final String interior;
+    private final int hash;
+
+    private HouseSpec(Components c) {
+        this.foundation = c.foundation;
+        this.walls = c.walls;
+        this.roof = c.roof;
+        this.interior = c.interior;
+        this.hash = c.hash;
+    }
+
+    // The shared spec for these components; any of them may be null
+    public static HouseSpec of(String foundation, String walls, String roof, String interior) {
+        Components key = new Components(foundation, walls, roof, interior);
+        SpecRef ref = INTERNED.get(key);
+        HouseSpec spec = ref == null ? null : ref.get();
+        return spec != null ? spec : intern(key);
+    }
+
+    private static HouseSpec intern(Components key) {
+        expungeCollected();
+        HouseSpec[] result = new HouseSpec[1];
+        INTERNED.compute(key, (k, old) -> {
+            HouseSpec live = old == null ? null : old.get();
+            if (live == null) {
+                live = new HouseSpec(k);
+                old = new SpecRef(k, live);
+            }
+            result[0] = live;                        // held strongly until we return it
+            return old;
+        });
+        return result[0];
+    }
+
+    private static void expungeCollected() {
+        for (Object ref; (ref = COLLECTED.poll()) != null; ) {
+            SpecRef stale = (SpecRef) ref;
+            INTERNED.remove(stale.key, stale);       // only if not already replaced
+        }
+    }
+
+    public String getFoundation() {
+        return foundation;
+    }
+
+    public String getWalls() {
+        return walls;
+    }
+
+    public String getRoof() {
+        return roof;
+    }
+
+    public String getInterior() {
+        return interior;
+    }
+
+    // Whether this spec has exactly these component instances (a cheap check before interning)
+    boolean sameComponents(String foundation, String walls, String roof, String interior) {
+        return this.foundation == foundation && this.walls == walls
+                && this.roof == roof && this.interior == interior;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof HouseSpec)) {
+            return false;
+        }
+        HouseSpec other = (HouseSpec) o;
+        return hash == other.hash
+                && Objects.equals(foundation, other.foundation)
+                && Objects.equals(walls, other.walls)
+                && Objects.equals(roof, other.roof)
+                && Objects.equals(interior, other.interior);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "HouseSpec{foundation='" + foundation + "', walls='" + walls
+                + "', roof='" + roof + "', interior='" + interior + "'}";
+    }
+
+    /** Intern-table key; refers to the component strings, never to the spec. */
+    private static final class Components {
+        final String foundation;
+        final String walls;
+        final String roof;
+        final String interior;
+        final int hash;
+
+        Components(String foundation, String walls, String roof, String interior) {
+            this.foundation = foundation;
+            this.walls = walls;
+            this.roof = roof;
+            this.interior = interior;
+            this.hash = Objects.hash(foundation, walls, roof, interior);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Components)) {
+                return false;
+            }
+            Components other = (Components) o;
+            return hash == other.hash
+                    && Objects.equals(foundation, other.foundation)
+                    && Objects.equals(walls, other.walls)
+                    && Objects.equals(roof, other.roof)
+                    && Objects.equals(interior, other.interior);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class SpecRef extends WeakReference<HouseSpec> {
+        final Components key;
+
+        SpecRef(Components key, HouseSpec spec) {
+            super(spec, COLLECTED);
+            this.key = key;
+        }
+    }
+}
@@ -24,5 +24,21 @@ public class Main {
         System.out.println("Walls: " + luxuryHouse.getWalls());
         System.out.println("Roof: " + luxuryHouse.getRoof());
         System.out.println("Interior: " + luxuryHouse.getInterior());
+
+        // Build a large batch in parallel: every third house is a luxury one
+        long start = System.nanoTime();
+        HouseBatch batch = HouseDirector.constructBatch(1_000_000, (i, b) -> {
+            if (i % 3 == 0) {
+                HouseDirector.LUXURY.apply(i, b);
+            } else {
+                HouseDirector.BASIC.apply(i, b);
+            }
+        });
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("\nBatch of " + batch.size() + " houses built in " + millis + " ms");
+        System.out.println("Slate roofs: " + batch.count(HouseBatch.Component.ROOF, "Slate Roof"));
+        System.out.println("Roof types: " + batch.distinct(HouseBatch.Component.ROOF));
+        System.out.println("House 3 shares its spec with house 0: "
+                + (batch.get(3).getSpec() == batch.get(0).getSpec()));
     }
 }
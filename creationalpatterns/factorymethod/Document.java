@@ -1,11 +1,44 @@
 package creationalpatterns.factorymethod;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
 /**
  * Abstract representation of a Document.
+ *
+ * <p>A document is split into parts – pages of a PDF, sections of a Word
+ * document – which are located the first time they are asked for, not when
+ * the document is opened.</p>
  */
 public interface Document {
     /**
      * Method to open the document.
+     *
+     * @param path The file to open.
+     * @throws IOException If the file cannot be read or is not in this document's format.
+     * @throws IllegalStateException If this document has already been opened.
+     */
+    void open(Path path) throws IOException;
+
+    /**
+     * @return The file this document was opened from.
+     */
+    Path getPath();
+
+    /**
+     * @return The size of the file in bytes.
+     */
+    long size();
+
+    /**
+     * @return The number of pages or sections.
+     */
+    int getPartCount();
+
+    /**
+     * @param index Zero-based page or section number.
+     * @return A read-only view of that part's bytes; nothing is copied.
      */
-    void open();
+    ByteBuffer getPart(int index);
 }
@@ -1,10 +1,49 @@
 package creationalpatterns.factorymethod;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Abstract class representing the Document Factory.
  * Defines the factory method for creating documents.
+ *
+ * <p>Opened documents are kept in a bounded, least-recently-used cache keyed
+ * by path, so opening a hot document again costs one {@code stat} of the
+ * file and a map lookup.  An entry is reused only while the file's
+ * modification time and size are unchanged; otherwise the file is opened
+ * afresh.</p>
  */
 public abstract class DocumentFactory {
+    private static final int DEFAULT_CACHE_SIZE = 64;
+
+    private final Map<Path, Cached> cache;
+    private long hits;
+    private long misses;
+
+    protected DocumentFactory() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param cacheSize The number of opened documents to keep; 0 disables the cache.
+     */
+    protected DocumentFactory(int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("cacheSize must be >= 0");
+        }
+        this.cache = new LinkedHashMap<Path, Cached>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, Cached> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
     /**
      * Factory method to create a Document.
      * 
@@ -13,10 +52,57 @@ public abstract class DocumentFactory {
     public abstract Document createDocument();
 
     /**
-     * A method that demonstrates working with a document.
+     * Open a document, or return the cached one if the file has not changed.
+     *
+     * @param path The file to open.
+     * @return An open Document, shared with other callers of this factory.
+     * @throws IOException If the file cannot be opened.
      */
-    public void openDocument() {
+    public Document openDocument(Path path) throws IOException {
+        Path key = path.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        synchronized (cache) {
+            Cached cached = cache.get(key);
+            if (cached != null && cached.isCurrent(attributes)) {
+                hits++;
+                return cached.document;
+            }
+            misses++;
+        }
         Document doc = createDocument(); // Call the factory method
-        doc.open(); // Use the created document
+        doc.open(key); // Use the created document
+        synchronized (cache) {
+            cache.put(key, new Cached(doc, attributes));
+        }
+        return doc;
+    }
+
+    public long getCacheHits() {
+        synchronized (cache) {
+            return hits;
+        }
+    }
+
+    public long getCacheMisses() {
+        synchronized (cache) {
+            return misses;
+        }
+    }
+
+    // An opened document and the file attributes it was opened with
+    private static final class Cached {
+        final Document document;
+        final FileTime modified;
+        final long size;
+
+        Cached(Document document, BasicFileAttributes attributes) {
+            this.document = document;
+            this.modified = attributes.lastModifiedTime();
+            this.size = attributes.size();
+        }
+
+        boolean isCurrent(BasicFileAttributes attributes) {
+            return modified.equals(attributes.lastModifiedTime()) && size == attributes.size();
+        }
     }
-}
\ No newline at end of file
+}
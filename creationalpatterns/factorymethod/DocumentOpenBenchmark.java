@@ -0,0 +1,87 @@
+package creationalpatterns.factorymethod;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.BufferedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Cost of opening documents through a {@link DocumentFactory}: a first open
+ * of a small and of a large PDF (which should cost the same, as nothing is
+ * read), the page scan on first access, and opening a cached document again.
+ *
+ * <p>A plain {@code main}: a first open and a first page scan happen only
+ * once per document, so they are timed once rather than in a loop.  The
+ * files are created in a temporary directory and deleted afterwards.</p>
+ */
+public class DocumentOpenBenchmark {
+    private static final int LARGE_PAGES = 1_000_000;
+    private static final int OPENS = 2_000;
+    private static final int REOPENS = 200_000;
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) throws IOException {
+        Path small = Files.createTempFile("small", ".pdf");
+        Path large = Files.createTempFile("large", ".pdf");
+        try {
+            Files.write(small, Main.samplePdf(3).getBytes(StandardCharsets.US_ASCII));
+            writeLargePdf(large, LARGE_PAGES);
+            System.out.printf("small: %,d bytes, large: %,d bytes%n", Files.size(small), Files.size(large));
+
+            for (int round = 0; round < 2; round++) {          // first round warms up
+                boolean report = round == 1;
+                report(report, "first open, small", coldOpen(small), "us");
+                report(report, "first open, large", coldOpen(large), "us");
+
+                DocumentFactory factory = new PDFDocumentFactory();
+                Document doc = factory.openDocument(large);
+                long start = System.nanoTime();
+                int pages = doc.getPartCount();
+                report(report, "page index, large (" + pages + " pages)", (System.nanoTime() - start) / 1e6, "ms");
+
+                start = System.nanoTime();
+                for (int i = 0; i < REOPENS; i++) {
+                    sink = factory.openDocument(large);
+                }
+                report(report, "reopen from cache", (System.nanoTime() - start) / 1e3 / REOPENS, "us");
+            }
+        } finally {
+            Files.deleteIfExists(small);
+            Files.deleteIfExists(large);
+        }
+    }
+
+    // Average microseconds per open with the cache disabled
+    private static double coldOpen(Path path) throws IOException {
+        DocumentFactory factory = new PDFDocumentFactory(0);
+        long start = System.nanoTime();
+        for (int i = 0; i < OPENS; i++) {
+            sink = factory.openDocument(path);
+        }
+        return (System.nanoTime() - start) / 1e3 / OPENS;
+    }
+
+    private static void report(boolean report, String name, double value, String unit) {
+        if (report) {
+            System.out.printf("%-36s %10.2f %s%n", name, value, unit);
+        }
+    }
+
+    private static void writeLargePdf(Path path, int pages) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), 1 << 16)) {
+            out.write(Main.samplePdf(0).replace("%%EOF\n", "").getBytes(StandardCharsets.US_ASCII));
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < pages; i++) {
+                sb.setLength(0);
+                sb.append(i + 3).append(" 0 obj\n<< /Type /Page /Parent 2 0 R /Contents (")
+                        .append("Lorem ipsum dolor sit amet, consectetur adipiscing elit, page ").append(i + 1)
+                        .append(") >>\nendobj\n");
+                out.write(sb.toString().getBytes(StandardCharsets.US_ASCII));
+            }
+            out.write("%%EOF\n".getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+}
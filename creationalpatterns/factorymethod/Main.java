@@ -1,16 +1,75 @@
 package creationalpatterns.factorymethod;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
 /**
  * Main class demonstrating the Factory Method Design Pattern.
  */
 public class Main {
-    public static void main(String[] args) {
-        // Use PDF Document Factory
-        DocumentFactory pdfFactory = new PDFDocumentFactory();
-        pdfFactory.openDocument(); // Outputs: Opening a PDF document.
-
-        // Use Word Document Factory
-        DocumentFactory wordFactory = new WordDocumentFactory();
-        wordFactory.openDocument(); // Outputs: Opening a Word document.
+    public static void main(String[] args) throws IOException {
+        Path pdf = Files.createTempFile("sample", ".pdf");
+        Path word = Files.createTempFile("sample", ".xml");
+        try {
+            Files.write(pdf, samplePdf(3).getBytes(StandardCharsets.US_ASCII));
+            Files.write(word, sampleWord(2).getBytes(StandardCharsets.UTF_8));
+
+            // Use PDF Document Factory
+            DocumentFactory pdfFactory = new PDFDocumentFactory();
+            Document pdfDoc = pdfFactory.openDocument(pdf);
+            System.out.println("Opened a PDF document with " + pdfDoc.getPartCount() + " pages.");
+            System.out.println("Page 2: " + text(pdfDoc.getPart(1)));
+
+            // Use Word Document Factory
+            DocumentFactory wordFactory = new WordDocumentFactory();
+            Document wordDoc = wordFactory.openDocument(word);
+            System.out.println("Opened a Word document with " + wordDoc.getPartCount() + " sections.");
+
+            // Opening again returns the cached document until the file changes
+            System.out.println("Reopened from cache: " + (pdfFactory.openDocument(pdf) == pdfDoc));
+            // Replace the file rather than rewriting it in place: pdfDoc still maps the old one
+            Path update = Files.createTempFile("sample", ".pdf");
+            Files.write(update, samplePdf(5).getBytes(StandardCharsets.US_ASCII));
+            Files.move(update, pdf, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Document changed = pdfFactory.openDocument(pdf);
+            System.out.println("After the file changed: " + changed.getPartCount() + " pages, new instance: "
+                    + (changed != pdfDoc));
+        } finally {
+            Files.deleteIfExists(pdf);
+            Files.deleteIfExists(word);
+        }
+    }
+
+    // A minimal PDF with one page object per page
+    static String samplePdf(int pages) {
+        StringBuilder sb = new StringBuilder("%PDF-1.4\n1 0 obj\n<< /Type /Catalog /Pages 2 0 R >>\nendobj\n");
+        sb.append("2 0 obj\n<< /Type /Pages /Count ").append(pages).append(" >>\nendobj\n");
+        for (int i = 0; i < pages; i++) {
+            sb.append(i + 3).append(" 0 obj\n<< /Type /Page /Parent 2 0 R /Contents (page ")
+                    .append(i + 1).append(") >>\nendobj\n");
+        }
+        return sb.append("%%EOF\n").toString();
+    }
+
+    // A minimal WordprocessingML body with one paragraph per section; section properties alternate
+    // between a full element and an empty one
+    static String sampleWord(int sections) {
+        StringBuilder sb = new StringBuilder("<?xml version=\"1.0\"?>\n<w:document><w:body>\n");
+        for (int i = 0; i < sections; i++) {
+            sb.append("<w:p><w:r><w:t>Section ").append(i + 1).append("</w:t></w:r></w:p>")
+                    .append(i % 2 == 0 ? "<w:sectPr><w:pgSz w:w=\"12240\" w:h=\"15840\"/></w:sectPr>\n"
+                                       : "<w:sectPr/>\n");
+        }
+        return sb.append("</w:body></w:document>\n").toString();
+    }
+
+    private static String text(ByteBuffer part) {
+        byte[] bytes = new byte[part.remaining()];
+        part.get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII).trim().replace('\n', ' ');
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,138 @@
+package creationalpatterns.factorymethod;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Shared base of the file-backed documents.
+ *
+ * <p>{@link #open} only memory-maps the file and checks its first bytes, so
+ * it takes the same time for a 1 KB file as for a 1 GB one; no content is
+ * read until a part is requested.  The part index is built on that first
+ * request by scanning the mapping once.  The channel is closed straight
+ * after mapping; the mapping stays valid without it.  Files are limited to
+ * 2 GB, the size of a single mapping.  A document is opened once; to read
+ * a changed file, open a new document.</p>
+ *
+ * <p>Update an open file by writing a new one and renaming it over the old
+ * one.  Truncating a mapped file in place makes reads of the lost range fail
+ * with an {@link InternalError}.</p>
+ */
+abstract class MappedDocument implements Document {
+    private volatile Path path;
+    private volatile ByteBuffer content;     // set once, by open
+    private volatile int[] index;            // start and end offset of every part, in pairs
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>A document maps one file for its whole life, so the part index
+     * always describes the content it is read from.</p>
+     */
+    @Override
+    public synchronized void open(Path path) throws IOException {
+        if (content != null) {
+            throw new IllegalStateException("document is already open: " + this.path);
+        }
+        MappedByteBuffer map;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(path + " is larger than 2 GB");
+            }
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        checkFormat(path, map);
+        this.path = path;
+        this.content = map;
+    }
+
+    @Override
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public long size() {
+        return opened().capacity();
+    }
+
+    @Override
+    public int getPartCount() {
+        return index().length / 2;
+    }
+
+    @Override
+    public ByteBuffer getPart(int index) {
+        int[] parts = index();
+        if (index < 0 || index >= parts.length / 2) {
+            throw new IndexOutOfBoundsException("part " + index + " of " + parts.length / 2);
+        }
+        ByteBuffer view = opened().asReadOnlyBuffer();
+        view.limit(parts[2 * index + 1]).position(parts[2 * index]);
+        return view.slice();
+    }
+
+    /** @throws IOException if the first bytes show the file is not in this format */
+    protected abstract void checkFormat(Path path, ByteBuffer content) throws IOException;
+
+    /** Scan the whole content once and return the start and end offset of every part, in pairs. */
+    protected abstract int[] buildIndex(ByteBuffer content);
+
+    protected static boolean startsWith(ByteBuffer content, String prefix) {
+        byte[] bytes = prefix.getBytes(StandardCharsets.US_ASCII);
+        if (content.capacity() < bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (content.get(i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Offset of the next {@code pattern} at or after {@code from}, or -1. */
+    protected static int indexOf(ByteBuffer content, byte[] pattern, int from) {
+        byte first = pattern[0];
+        for (int i = from, last = content.capacity() - pattern.length; i <= last; i++) {
+            if (content.get(i) != first) {
+                continue;
+            }
+            int k = 1;
+            while (k < pattern.length && content.get(i + k) == pattern[k]) {
+                k++;
+            }
+            if (k == pattern.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private ByteBuffer opened() {
+        if (content == null) {
+            throw new IllegalStateException("document is not open");
+        }
+        return content;
+    }
+
+    private int[] index() {
+        int[] parts = index;
+        if (parts == null) {
+            synchronized (this) {
+                parts = index;
+                if (parts == null) {
+                    parts = buildIndex(opened().duplicate());
+                    index = parts;
+                }
+            }
+        }
+        return parts;
+    }
+}
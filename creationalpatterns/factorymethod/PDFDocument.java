@@ -1,12 +1,103 @@
 package creationalpatterns.factorymethod;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+
 // Concrete Product: PDF Document
 /**
  * PDFDocument is a specific implementation of the Document interface for PDF files.
+ *
+ * <p>Each part is one page object: from its {@code N 0 obj} line to its
+ * {@code endobj}.  Pages are found by a single scan for {@code /Type /Page}
+ * on first access.  Page objects packed into compressed object streams
+ * (PDF 1.5+) cannot be seen that way; such a file is indexed as one part.</p>
  */
-public class PDFDocument implements Document {
+public class PDFDocument extends MappedDocument {
+    private static final byte[] TYPE = "/Type".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PAGE = "/Page".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ENDOBJ = "endobj".getBytes(StandardCharsets.US_ASCII);
+
+    public int getPageCount() {
+        return getPartCount();
+    }
+
+    public ByteBuffer getPage(int index) {
+        return getPart(index);
+    }
+
+    @Override
+    protected void checkFormat(Path path, ByteBuffer content) throws IOException {
+        if (!startsWith(content, "%PDF-")) {
+            throw new IOException("not a PDF file: " + path);
+        }
+    }
+
     @Override
-    public void open() {
-        System.out.println("Opening a PDF document.");
+    protected int[] buildIndex(ByteBuffer content) {
+        int[] parts = new int[16];
+        int count = 0;
+        int end = content.capacity();
+        for (int at = indexOf(content, TYPE, 0); at >= 0; at = indexOf(content, TYPE, at + TYPE.length)) {
+            int value = at + TYPE.length;
+            while (value < end && isWhitespace(content.get(value))) {
+                value++;
+            }
+            if (!matches(content, value, PAGE) || !isDelimiter(content, value + PAGE.length)) {
+                continue;                                   // /Pages, /Catalog, ...
+            }
+            int start = objectStart(content, at);
+            int close = indexOf(content, ENDOBJ, value);
+            int stop = close < 0 ? end : close + ENDOBJ.length;
+            if (2 * count + 2 > parts.length) {
+                parts = Arrays.copyOf(parts, parts.length * 2);
+            }
+            parts[2 * count] = start;
+            parts[2 * count + 1] = stop;
+            count++;
+            at = stop - TYPE.length;                        // continue after this object
+        }
+        return count == 0 ? new int[] {0, end} : Arrays.copyOf(parts, 2 * count);
+    }
+
+    // Start of the line holding the "obj" keyword that opens the object around 'at'
+    private static int objectStart(ByteBuffer content, int at) {
+        for (int i = at - 3; i >= 0; i--) {
+            if (content.get(i) == 'o' && content.get(i + 1) == 'b' && content.get(i + 2) == 'j'
+                    && (i == 0 || content.get(i - 1) != 'd')) {   // not "endobj"
+                int line = i;
+                while (line > 0 && content.get(line - 1) != '\n' && content.get(line - 1) != '\r') {
+                    line--;
+                }
+                return line;
+            }
+        }
+        return at;
+    }
+
+    private static boolean matches(ByteBuffer content, int at, byte[] pattern) {
+        if (at + pattern.length > content.capacity()) {
+            return false;
+        }
+        for (int i = 0; i < pattern.length; i++) {
+            if (content.get(at + i) != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDelimiter(ByteBuffer content, int at) {
+        if (at >= content.capacity()) {
+            return true;
+        }
+        byte b = content.get(at);
+        return isWhitespace(b) || b == '/' || b == '>' || b == '[' || b == '<' || b == '(';
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0;
     }
-}
\ No newline at end of file
+}
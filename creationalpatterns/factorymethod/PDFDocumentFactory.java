@@ -5,6 +5,15 @@ package creationalpatterns.factorymethod;
  * PDFDocumentFactory is responsible for creating PDF documents.
  */
 public class PDFDocumentFactory extends DocumentFactory {
+    public PDFDocumentFactory() {
+        super();
+    }
+
+    // Keep up to cacheSize opened documents
+    public PDFDocumentFactory(int cacheSize) {
+        super(cacheSize);
+    }
+
     @Override
     public Document createDocument() {
         return new PDFDocument(); // Create a PDF document
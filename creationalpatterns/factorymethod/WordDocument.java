@@ -1,12 +1,119 @@
 package creationalpatterns.factorymethod;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+
 // Concrete Product: Word Document
 /**
  * WordDocument is a specific implementation of the Document interface for Word files.
+ *
+ * <p>Reads uncompressed WordprocessingML – a Word 2003 XML or flat OPC file,
+ * or the {@code word/document.xml} of a .docx.  A .docx itself is a zip
+ * archive; its content is compressed and cannot be mapped, so it is
+ * rejected.  Each part is one section, ending with its section properties:
+ * a {@code <w:sectPr>...</w:sectPr>} element (section properties nested in a
+ * {@code <w:sectPrChange>} included) or an empty {@code <w:sectPr/>}.
+ * Whatever follows the last one belongs to the last section.</p>
  */
-public class WordDocument implements Document {
+public class WordDocument extends MappedDocument {
+    private static final byte[] SECTION = "<w:sectPr".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SECTION_END = "</w:sectPr>".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] GT = {'>'};
+
+    public int getSectionCount() {
+        return getPartCount();
+    }
+
+    public ByteBuffer getSection(int index) {
+        return getPart(index);
+    }
+
     @Override
-    public void open() {
-        System.out.println("Opening a Word document.");
+    protected void checkFormat(Path path, ByteBuffer content) throws IOException {
+        if (startsWith(content, "PK")) {
+            throw new IOException("compressed .docx, extract word/document.xml first: " + path);
+        }
+        int first = content.capacity() >= 3 && (content.get(0) & 0xFF) == 0xEF
+                && (content.get(1) & 0xFF) == 0xBB && (content.get(2) & 0xFF) == 0xBF ? 3 : 0;   // UTF-8 BOM
+        if (content.capacity() <= first || content.get(first) != '<') {
+            throw new IOException("not a WordprocessingML file: " + path);
+        }
+    }
+
+    @Override
+    protected int[] buildIndex(ByteBuffer content) {
+        int[] parts = new int[16];
+        int count = 0;
+        int start = 0;
+        for (int at = nextSection(content, 0); at >= 0; at = nextSection(content, start)) {
+            int end = sectionEnd(content, at);
+            if (end < 0) {
+                break;                                     // unterminated: the rest joins the last section
+            }
+            if (2 * count + 2 > parts.length) {
+                parts = Arrays.copyOf(parts, parts.length * 2);
+            }
+            parts[2 * count] = start;
+            parts[2 * count + 1] = end;
+            start = end;
+            count++;
+        }
+        if (count == 0) {
+            return new int[] {0, content.capacity()};
+        }
+        parts[2 * count - 1] = content.capacity();        // closing tags join the last section
+        return Arrays.copyOf(parts, 2 * count);
+    }
+
+    // Offset of the next <w:sectPr> or <w:sectPr/> start tag, skipping <w:sectPrChange> and the like
+    private static int nextSection(ByteBuffer content, int from) {
+        for (int at = indexOf(content, SECTION, from); at >= 0; at = indexOf(content, SECTION, at + 1)) {
+            int next = at + SECTION.length;
+            if (next >= content.capacity()) {
+                return -1;
+            }
+            byte b = content.get(next);
+            if (b == '>' || b == '/' || b == ' ' || b == '\t' || b == '\r' || b == '\n') {
+                return at;
+            }
+        }
+        return -1;
+    }
+
+    // End offset of the sectPr element whose start tag is at 'at', or -1 if it is not closed
+    private static int sectionEnd(ByteBuffer content, int at) {
+        int depth = 0;
+        int tag = at;
+        while (true) {
+            int close = indexOf(content, GT, tag + SECTION.length);
+            if (close < 0) {
+                return -1;
+            }
+            if (content.get(close - 1) != '/') {
+                depth++;
+            } else if (depth == 0) {
+                return close + 1;                         // <w:sectPr/>
+            }
+            // Closing tags up to the next nested start tag
+            int from = close + 1;
+            int open = nextSection(content, from);
+            while (true) {
+                int end = indexOf(content, SECTION_END, from);
+                if (end < 0) {
+                    return -1;
+                }
+                if (open >= 0 && open < end) {
+                    tag = open;
+                    break;
+                }
+                from = end + SECTION_END.length;
+                if (--depth == 0) {
+                    return from;
+                }
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -5,6 +5,15 @@ package creationalpatterns.factorymethod;
  * WordDocumentFactory is responsible for creating Word documents.
  */
 public class WordDocumentFactory extends DocumentFactory {
+    public WordDocumentFactory() {
+        super();
+    }
+
+    // Keep up to cacheSize opened documents
+    public WordDocumentFactory(int cacheSize) {
+        super(cacheSize);
+    }
+
     @Override
     public Document createDocument() {
         return new WordDocument(); // Create a Word document
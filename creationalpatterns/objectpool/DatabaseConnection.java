@@ -1,25 +1,47 @@
 package creationalpatterns.objectpool;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * DatabaseConnection simulates a reusable object for database operations.
  */
 public class DatabaseConnection {
-    private boolean inUse;
+    // The pool claims a connection with a single compare-and-set on this flag
+    private final AtomicBoolean inUse = new AtomicBoolean(false);
+    private volatile boolean closed;
+
+    // Bookkeeping for idle eviction and leak detection, maintained by the pool
+    volatile long lastReleasedNanos = System.nanoTime();
+    volatile long acquiredNanos;
+    volatile Throwable acquiredAt;
+    volatile boolean leakReported;
 
     public DatabaseConnection() {
-        this.inUse = false;
     }
 
     public boolean isInUse() {
-        return inUse;
+        return inUse.get();
     }
 
     public void setInUse(boolean inUse) {
-        this.inUse = inUse;
+        this.inUse.set(inUse);
+    }
+
+    // Atomically mark the connection as in use; false if someone else holds it
+    boolean tryClaim() {
+        return inUse.compareAndSet(false, true);
+    }
+
+    // A real connection would ping the server here
+    public boolean isValid() {
+        return !closed;
+    }
+
+    public void close() {
+        closed = true;
     }
 
     public void executeQuery(String query) {
         System.out.println("Executing query: " + query);
     }
 }
-
@@ -1,39 +1,491 @@
 package creationalpatterns.objectpool;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Object pool managing reusable database connections.
+ *
+ * <p>Lock-free: a connection is taken by a compare-and-set on its own
+ * {@code inUse} flag, so threads only contend when they race for the very
+ * same connection.  Acquisition tries, in order:</p>
+ * <ol>
+ *   <li>the connection this thread released last (thread affinity – usually
+ *       still free and still warm in this core's cache);</li>
+ *   <li>a scan of all connections starting at a random slot, so concurrent
+ *       scanners do not pile onto slot 0;</li>
+ *   <li>opening a new connection, while fewer than {@code maxPoolSize}
+ *       exist;</li>
+ *   <li>waiting: {@link #acquire(long, TimeUnit)} joins a first-in,
+ *       first-out queue of waiters and parks; {@link #releaseConnection}
+ *       passes the freed connection, still claimed, straight to the
+ *       longest-waiting thread and unparks it.  Neither side spins.</li>
+ * </ol>
+ *
+ * <p>The pool is elastic.  It opens {@code minPoolSize} connections up front
+ * and the rest only on demand.  A background reaper closes connections idle
+ * longer than {@code idleTimeoutMillis} (to within one reaper tick of at most
+ * a second, never going below the minimum), tops the pool back up to the
+ * minimum and reports connections held longer than
+ * {@code leakThresholdMillis}, together with where they were acquired.
+ * Every connection is validated before it is handed out; broken ones are
+ * discarded and replaced.</p>
  */
-public class DatabaseConnectionPool {
-    private final List<DatabaseConnection> connections;
+public class DatabaseConnectionPool implements AutoCloseable {
+    private static final DatabaseConnection[] EMPTY = new DatabaseConnection[0];
+    private static final int YIELDS_BEFORE_PARK = 8;
+
+    private final int minPoolSize;
     private final int maxPoolSize;
+    private final long idleTimeoutNanos;
+    private final long leakThresholdNanos;
+
+    // Copy-on-write: readers scan a snapshot, writers swap it under the lock
+    private volatile DatabaseConnection[] connections = EMPTY;
+    private final Object resizeLock = new Object();
+    private final AtomicInteger total = new AtomicInteger();   // includes ones being opened
+
+    // Fair: waiting threads are served first-in, first-out
+    private final ConcurrentLinkedQueue<Waiter> waitQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final ThreadLocal<DatabaseConnection> lastUsed = new ThreadLocal<>();
+    private final ScheduledExecutorService reaper;
+    // Coarse clock ticked by the reaper; stamps releases without a nanoTime() call
+    private volatile long clockNanos = System.nanoTime();
+
+    // Metrics
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder invalid = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
 
+    /** Grows lazily up to {@code maxPoolSize}; 60 s idle timeout, no leak detection. */
     public DatabaseConnectionPool(int maxPoolSize) {
-        this.connections = new ArrayList<>();
+        this(0, maxPoolSize, 60_000, 0);
+    }
+
+    /**
+     * @param minPoolSize         connections opened up front and kept when idle
+     * @param maxPoolSize         hard upper bound
+     * @param idleTimeoutMillis   close idle connections above the minimum after this
+     * @param leakThresholdMillis report connections held longer; 0 disables
+     */
+    public DatabaseConnectionPool(int minPoolSize, int maxPoolSize,
+                                  long idleTimeoutMillis, long leakThresholdMillis) {
+        if (minPoolSize < 0 || maxPoolSize <= 0 || minPoolSize > maxPoolSize) {
+            throw new IllegalArgumentException("need 0 <= minPoolSize <= maxPoolSize, maxPoolSize > 0");
+        }
+        if (idleTimeoutMillis <= 0 || leakThresholdMillis < 0) {
+            throw new IllegalArgumentException("idleTimeoutMillis must be > 0, leakThresholdMillis >= 0");
+        }
+        this.minPoolSize = minPoolSize;
         this.maxPoolSize = maxPoolSize;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.leakThresholdNanos = TimeUnit.MILLISECONDS.toNanos(leakThresholdMillis);
 
-        // Initialize the pool with connections
-        for (int i = 0; i < maxPoolSize; i++) {
-            connections.add(new DatabaseConnection());
+        // Initialize the pool with the minimum number of connections
+        fillToMinimum();
+
+        long period = leakThresholdMillis > 0 ? Math.min(idleTimeoutMillis, leakThresholdMillis) : idleTimeoutMillis;
+        period = Math.max(10, Math.min(1_000, period / 4));
+        this.reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-reaper");
+            t.setDaemon(true);
+            return t;
+        });
+        reaper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Take a free connection without waiting.
+     *
+     * @return a connection, or {@code null} if all {@code maxPoolSize} are in use
+     */
+    public DatabaseConnection acquireConnection() {
+        DatabaseConnection connection = tryAcquire();
+        if (connection == null) {
+            connection = grow();
+        }
+        if (connection == null) {
+            System.out.println("No available connections.");
+            return null;
         }
+        return checkedOut(connection, 0);
     }
 
-    // Method to acquire a connection
-    public synchronized DatabaseConnection acquireConnection() {
+    /**
+     * Take a connection, waiting up to {@code timeout} for one to be released.
+     * Waiting threads are served in arrival order.
+     *
+     * @throws PoolExhaustedException if none became free in time
+     */
+    public DatabaseConnection acquire(long timeout, TimeUnit unit) throws InterruptedException {
+        DatabaseConnection connection = tryAcquire();
+        if (connection == null) {
+            connection = grow();
+        }
+        if (connection != null) {
+            return checkedOut(connection, 0);
+        }
+        long start = System.nanoTime();
+        // Holders usually release within a time slice, sooner than a park/unpark round trip
+        for (int i = 0; i < YIELDS_BEFORE_PARK; i++) {
+            Thread.yield();
+            if ((connection = tryAcquire()) != null) {
+                return checkedOut(connection, start);
+            }
+        }
+        long deadline = start + unit.toNanos(timeout);
+        waiters.incrementAndGet();
+        try {
+            while (true) {
+                Waiter waiter = new Waiter();
+                waitQueue.add(waiter);
+                // A release may have slipped in before we joined the queue
+                connection = scan();
+                if (connection == null) {
+                    connection = grow();
+                }
+                if (connection != null) {
+                    if (!waiter.cancel()) {
+                        requite(waiter.handed());       // handed one as well: pass it on
+                    }
+                    waitQueue.remove(waiter);
+                    return checkedOut(connection, start);
+                }
+                long remaining;
+                while ((remaining = deadline - System.nanoTime()) > 0 && waiter.isWaiting()) {
+                    LockSupport.parkNanos(this, remaining);
+                    if (Thread.interrupted()) {
+                        if (waiter.cancel()) {
+                            waitQueue.remove(waiter);
+                        } else {
+                            requite(waiter.handed());
+                        }
+                        throw new InterruptedException();
+                    }
+                }
+                if (waiter.cancel()) {                  // timed out with nothing handed over
+                    waitQueue.remove(waiter);
+                    timeouts.increment();
+                    throw new PoolExhaustedException(maxPoolSize, unit.toMillis(timeout));
+                }
+                // Handed over still claimed; a broken one is dropped and we queue again
+                connection = waiter.handed();
+                if (valid(connection)) {
+                    return checkedOut(connection, start);
+                }
+            }
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    // Method to release a connection back to the pool
+    public void releaseConnection(DatabaseConnection connection) {
+        connection.acquiredAt = null;
+        connection.lastReleasedNanos = clockNanos;
+        lastUsed.set(connection);
+        requite(connection);
+    }
+
+    /** Stops the reaper and closes every idle connection. */
+    @Override
+    public void close() {
+        reaper.shutdownNow();
         for (DatabaseConnection connection : connections) {
-            if (!connection.isInUse()) {
-                connection.setInUse(true);
+            if (connection.tryClaim()) {
+                discard(connection);
+            }
+        }
+    }
+
+    public int getMinPoolSize() {
+        return minPoolSize;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    /* ---------------------------------------------------------------- */
+    /* Metrics                                                          */
+    /* ---------------------------------------------------------------- */
+
+    public int getTotalConnections() {
+        return connections.length;
+    }
+
+    public int getActiveConnections() {
+        int active = 0;
+        for (DatabaseConnection connection : connections) {
+            if (connection.isInUse()) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    public int getIdleConnections() {
+        return getTotalConnections() - getActiveConnections();
+    }
+
+    // Share of the maximum size currently checked out, 0.0 - 1.0
+    public double getUtilization() {
+        return (double) getActiveConnections() / maxPoolSize;
+    }
+
+    public int getWaitingThreads() {
+        return waiters.get();
+    }
+
+    public long getAcquisitions() {
+        return acquisitions.sum();
+    }
+
+    public double getAverageWaitMillis() {
+        long n = acquisitions.sum();
+        return n == 0 ? 0 : waitNanos.sum() / 1e6 / n;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1e6;
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    public long getCreatedConnections() {
+        return created.sum();
+    }
+
+    public long getEvictedConnections() {
+        return evicted.sum();
+    }
+
+    public long getInvalidConnections() {
+        return invalid.sum();
+    }
+
+    public long getLeaksDetected() {
+        return leaks.sum();
+    }
+
+    /* ---------------------------------------------------------------- */
+    /* Internals                                                        */
+    /* ---------------------------------------------------------------- */
+
+    // Affinity fast path, then a full scan; both return a valid, claimed connection
+    private DatabaseConnection tryAcquire() {
+        DatabaseConnection last = lastUsed.get();
+        if (last != null && last.tryClaim() && valid(last)) {
+            return last;
+        }
+        return scan();
+    }
+
+    private DatabaseConnection scan() {
+        DatabaseConnection[] snapshot = connections;
+        int n = snapshot.length;
+        if (n == 0) {
+            return null;
+        }
+        int start = ThreadLocalRandom.current().nextInt(n);
+        for (int i = 0; i < n; i++) {
+            DatabaseConnection connection = snapshot[(start + i) % n];
+            if (connection.tryClaim() && valid(connection)) {
                 return connection;
             }
         }
-        System.out.println("No available connections.");
         return null;
     }
 
-    // Method to release a connection back to the pool
-    public synchronized void releaseConnection(DatabaseConnection connection) {
+    // Open one more connection if below the maximum; returned already claimed
+    private DatabaseConnection grow() {
+        while (true) {
+            int current = total.get();
+            if (current >= maxPoolSize) {
+                return null;
+            }
+            if (total.compareAndSet(current, current + 1)) {
+                break;
+            }
+        }
+        DatabaseConnection connection = new DatabaseConnection();
+        connection.setInUse(true);
+        synchronized (resizeLock) {
+            DatabaseConnection[] grown = Arrays.copyOf(connections, connections.length + 1);
+            grown[grown.length - 1] = connection;
+            connections = grown;
+        }
+        created.increment();
+        return connection;
+    }
+
+    // Caller holds the claim; broken connections are dropped
+    private boolean valid(DatabaseConnection connection) {
+        if (connection.isValid()) {
+            return true;
+        }
+        invalid.increment();
+        discard(connection);
+        return false;
+    }
+
+    // Remove a claimed connection for good; it stays claimed so nobody can take it
+    private void discard(DatabaseConnection connection) {
+        synchronized (resizeLock) {
+            DatabaseConnection[] current = connections;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == connection) {
+                    DatabaseConnection[] shrunk = new DatabaseConnection[current.length - 1];
+                    System.arraycopy(current, 0, shrunk, 0, i);
+                    System.arraycopy(current, i + 1, shrunk, i, current.length - i - 1);
+                    connections = shrunk;
+                    total.decrementAndGet();
+                    break;
+                }
+            }
+        }
+        connection.close();
+    }
+
+    /*
+     * Make a claimed connection available again, preferably to a waiting
+     * thread.  It is freed first and the queue checked after, while a waiter
+     * joins the queue first and scans after, so at least one of the two sees
+     * the other and no waiter sleeps next to a free connection.  Each round
+     * either hands the connection over, loses it to a scanner or removes one
+     * (cancelled) waiter, so this never spins.
+     */
+    private void requite(DatabaseConnection connection) {
         connection.setInUse(false);
+        while (!waitQueue.isEmpty()) {
+            if (!connection.tryClaim()) {
+                return;                                 // a scanner took it
+            }
+            Waiter waiter = waitQueue.poll();
+            if (waiter != null && waiter.offer(connection)) {
+                return;
+            }
+            connection.setInUse(false);
+        }
+    }
+
+    // startNanos is 0 when the connection was available without waiting
+    private DatabaseConnection checkedOut(DatabaseConnection connection, long startNanos) {
+        acquisitions.increment();
+        if (startNanos != 0) {
+            long waited = System.nanoTime() - startNanos;
+            waitNanos.add(waited);
+            maxWaitNanos.accumulate(waited);
+        }
+        if (leakThresholdNanos > 0) {
+            connection.acquiredNanos = System.nanoTime();
+            connection.leakReported = false;
+            connection.acquiredAt = new Throwable("Connection acquired by " + Thread.currentThread().getName());
+        }
+        return connection;
+    }
+
+    private void fillToMinimum() {
+        while (total.get() < minPoolSize) {
+            DatabaseConnection connection = grow();
+            if (connection == null) {
+                return;
+            }
+            connection.lastReleasedNanos = clockNanos;
+            requite(connection);
+        }
+    }
+
+    private void housekeep() {
+        try {
+            long now = System.nanoTime();
+            clockNanos = now;
+            for (DatabaseConnection connection : connections) {
+                if (connection.isInUse()) {
+                    reportLeak(connection, now);
+                } else if (now - connection.lastReleasedNanos > idleTimeoutNanos
+                        && total.get() > minPoolSize && connection.tryClaim()) {
+                    // Re-check under the claim: it may have been used and released meanwhile
+                    if (now - connection.lastReleasedNanos > idleTimeoutNanos) {
+                        discard(connection);
+                        evicted.increment();
+                    } else {
+                        requite(connection);
+                    }
+                }
+            }
+            fillToMinimum();
+        } catch (RuntimeException e) {
+            System.err.println("[POOL] housekeeping failed: " + e);
+        }
+    }
+
+    private void reportLeak(DatabaseConnection connection, long now) {
+        Throwable acquiredAt = connection.acquiredAt;
+        if (leakThresholdNanos == 0 || connection.leakReported || acquiredAt == null
+                || now - connection.acquiredNanos <= leakThresholdNanos) {
+            return;
+        }
+        connection.leakReported = true;
+        leaks.increment();
+        System.err.println("[POOL] Possible connection leak: held for "
+                + TimeUnit.NANOSECONDS.toMillis(now - connection.acquiredNanos) + " ms");
+        acquiredAt.printStackTrace();
+    }
+
+    // A thread parked in acquire(timeout); its slot goes from empty to a connection or CANCELLED once
+    private static final class Waiter {
+        private static final Object CANCELLED = new Object();
+
+        private final Thread thread = Thread.currentThread();
+        private final AtomicReference<Object> slot = new AtomicReference<>();
+
+        boolean offer(DatabaseConnection connection) {
+            if (slot.compareAndSet(null, connection)) {
+                LockSupport.unpark(thread);
+                return true;
+            }
+            return false;
+        }
+
+        // False if a connection was handed over first
+        boolean cancel() {
+            return slot.compareAndSet(null, CANCELLED);
+        }
+
+        boolean isWaiting() {
+            return slot.get() == null;
+        }
+
+        DatabaseConnection handed() {
+            return (DatabaseConnection) slot.get();
+        }
+    }
+
+    /**
+     * Thrown by {@link #acquire(long, TimeUnit)} when no connection became
+     * free within the timeout.
+     */
+    public static class PoolExhaustedException extends RuntimeException {
+        public PoolExhaustedException(int poolSize, long timeoutMillis) {
+            super("All " + poolSize + " connections in use for " + timeoutMillis + " ms");
+        }
     }
 }
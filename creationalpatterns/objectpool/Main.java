@@ -1,7 +1,9 @@
 package creationalpatterns.objectpool;
 
+import java.util.concurrent.TimeUnit;
+
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
         // Create a connection pool with 2 connections
         DatabaseConnectionPool pool = new DatabaseConnectionPool(2);
 
@@ -32,5 +34,17 @@ public class Main {
                 if (connectio11 != null) {
                     connectio11.executeQuery("SELECT * FROM YahooNFJS");
                 }
+
+        // Wait up to 100 ms instead of getting null back
+        try {
+            pool.acquire(100, TimeUnit.MILLISECONDS);
+        } catch (DatabaseConnectionPool.PoolExhaustedException e) {
+            System.out.println(e.getMessage());
+        }
+
+        System.out.println("Connections opened: " + pool.getTotalConnections()
+                + ", utilization: " + pool.getUtilization()
+                + ", timeouts: " + pool.getTimeouts());
+        pool.close();
     }
 }
@@ -0,0 +1,268 @@
+package creationalpatterns.objectpool;
+
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Generic pool for cheap-to-reset, hot objects (buffers, {@code StringBuilder}s,
+ * message objects) – the allocation-saving side of the Object Pool pattern,
+ * as opposed to the resource-limiting {@link DatabaseConnectionPool}.
+ *
+ * <p>Objects travel inside a {@link Handle} that is created once with the
+ * object and reused with it, so steady-state {@link #acquire()} /
+ * {@link Handle#release()} allocate nothing:</p>
+ * <ul>
+ *   <li>each thread has a small local stack – no synchronisation at all when
+ *       the same thread acquires and releases;</li>
+ *   <li>an object released on another thread goes back to the stack it came
+ *       from through a lock-free inbox that the owner drains when its stack
+ *       runs dry;</li>
+ *   <li>when a local stack is full, or its owner thread has died, objects go
+ *       to a bounded, lock-free shared overflow that any thread can take
+ *       from; beyond that they are left to the garbage collector.</li>
+ * </ul>
+ *
+ * <pre>
+ *   ObjectPool&lt;StringBuilder&gt; pool =
+ *       new ObjectPool&lt;&gt;(() -&gt; new StringBuilder(256), sb -&gt; sb.setLength(0));
+ *   ObjectPool.Handle&lt;StringBuilder&gt; h = pool.acquire();
+ *   h.get().append("...");
+ *   h.release();
+ * </pre>
+ *
+ * @param <T> pooled type
+ */
+public class ObjectPool<T> {
+    private final Supplier<? extends T> factory;
+    private final Consumer<? super T> reset;
+    private final int localCapacity;
+    private final SharedOverflow<T> shared;
+    private final ThreadLocal<LocalStack<T>> local;
+    private final LongAdder created = new LongAdder();
+
+    /** 64 objects per thread, 1024 shared. */
+    public ObjectPool(Supplier<? extends T> factory, Consumer<? super T> reset) {
+        this(factory, reset, 64, 1024);
+    }
+
+    /**
+     * @param factory        creates a new object when the pool is empty
+     * @param reset          clears an object on release, before it can be reused
+     * @param localCapacity  objects kept per thread
+     * @param sharedCapacity objects kept in the shared overflow (rounded up to a power of two)
+     */
+    public ObjectPool(Supplier<? extends T> factory, Consumer<? super T> reset,
+                      int localCapacity, int sharedCapacity) {
+        if (localCapacity <= 0 || sharedCapacity <= 0) {
+            throw new IllegalArgumentException("capacities must be > 0");
+        }
+        this.factory = Objects.requireNonNull(factory);
+        this.reset = Objects.requireNonNull(reset);
+        this.localCapacity = localCapacity;
+        this.shared = new SharedOverflow<>(sharedCapacity);
+        this.local = ThreadLocal.withInitial(() -> new LocalStack<>(this));
+    }
+
+    /** Take an object, creating one only if this thread, its inbox and the shared overflow are empty. */
+    public Handle<T> acquire() {
+        LocalStack<T> stack = local.get();
+        Handle<T> handle = stack.pop();
+        if (handle == null) {
+            handle = shared.poll();
+            if (handle == null) {
+                created.increment();
+                handle = new Handle<>(factory.get());
+            }
+            handle.owner = stack;
+        }
+        handle.state = Handle.IN_USE;
+        return handle;
+    }
+
+    /** Objects created so far; stops growing once the pool has warmed up. */
+    public long createdCount() {
+        return created.sum();
+    }
+
+    private void recycle(Handle<T> handle) {
+        if (!Handle.STATE.compareAndSet(handle, Handle.IN_USE, Handle.POOLED)) {
+            throw new IllegalStateException("object released twice");
+        }
+        reset.accept(handle.value);
+        LocalStack<T> owner = handle.owner;
+        Thread ownerThread = owner.thread.get();
+        if (ownerThread == Thread.currentThread()) {
+            if (!owner.push(handle)) {
+                shared.offer(handle);
+            }
+        } else if (ownerThread != null && ownerThread.isAlive()) {
+            owner.pushRemote(handle);
+        } else {
+            shared.offer(handle);
+        }
+    }
+
+    /**
+     * A pooled object and its way home.  Call {@link #release()} exactly once
+     * per {@link ObjectPool#acquire()}, from any thread, and stop using
+     * {@link #get()} afterwards.
+     */
+    public static final class Handle<T> {
+        private static final int IN_USE = 0;
+        private static final int POOLED = 1;
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<Handle> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Handle.class, "state");
+
+        private final T value;
+        private volatile int state;
+        private volatile LocalStack<T> owner;
+        private Handle<T> next;                    // link in an owner's inbox
+
+        private Handle(T value) {
+            this.value = value;
+        }
+
+        public T get() {
+            return value;
+        }
+
+        public void release() {
+            owner.pool.recycle(this);
+        }
+    }
+
+    /* ---------------------------------------------------------------- */
+    /* Internals                                                        */
+    /* ---------------------------------------------------------------- */
+
+    /** One per thread: a plain array stack plus an inbox for remote releases. */
+    private static final class LocalStack<T> {
+        final ObjectPool<T> pool;
+        final WeakReference<Thread> thread;
+        final Handle<T>[] elements;
+        int size;
+        // Intrusive Treiber stack; only the owner takes from it, and always all at once
+        final AtomicReference<Handle<T>> inbox = new AtomicReference<>();
+
+        @SuppressWarnings("unchecked")
+        LocalStack(ObjectPool<T> pool) {
+            this.pool = pool;
+            this.thread = new WeakReference<>(Thread.currentThread());
+            this.elements = (Handle<T>[]) new Handle<?>[pool.localCapacity];
+        }
+
+        Handle<T> pop() {
+            if (size == 0 && !drainInbox()) {
+                return null;
+            }
+            Handle<T> handle = elements[--size];
+            elements[size] = null;
+            return handle;
+        }
+
+        boolean push(Handle<T> handle) {
+            if (size == elements.length) {
+                return false;
+            }
+            elements[size++] = handle;
+            return true;
+        }
+
+        void pushRemote(Handle<T> handle) {
+            Handle<T> head;
+            do {
+                head = inbox.get();
+                handle.next = head;
+            } while (!inbox.compareAndSet(head, handle));
+        }
+
+        private boolean drainInbox() {
+            Handle<T> handle = inbox.getAndSet(null);
+            if (handle == null) {
+                return false;
+            }
+            while (handle != null) {
+                Handle<T> next = handle.next;
+                handle.next = null;
+                if (!push(handle)) {
+                    pool.shared.offer(handle);
+                }
+                handle = next;
+            }
+            return size > 0;
+        }
+    }
+
+    /**
+     * Bounded multi-producer/multi-consumer array queue (Vyukov): each slot
+     * has a sequence number, so producers and consumers claim slots with one
+     * CAS and never allocate.  Full offers are dropped.
+     */
+    private static final class SharedOverflow<T> {
+        private final AtomicReferenceArray<Handle<T>> slots;
+        private final AtomicLongArray sequence;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+        private final AtomicLong head = new AtomicLong();
+
+        SharedOverflow(int capacity) {
+            int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+            this.slots = new AtomicReferenceArray<>(size);
+            this.sequence = new AtomicLongArray(size);
+            this.mask = size - 1;
+            for (int i = 0; i < size; i++) {
+                sequence.set(i, i);
+            }
+        }
+
+        boolean offer(Handle<T> handle) {
+            long pos = tail.get();
+            while (true) {
+                int index = (int) pos & mask;
+                long diff = sequence.get(index) - pos;
+                if (diff == 0) {
+                    if (tail.compareAndSet(pos, pos + 1)) {
+                        slots.lazySet(index, handle);
+                        sequence.set(index, pos + 1);
+                        return true;
+                    }
+                    pos = tail.get();
+                } else if (diff < 0) {
+                    return false;                       // full
+                } else {
+                    pos = tail.get();
+                }
+            }
+        }
+
+        Handle<T> poll() {
+            long pos = head.get();
+            while (true) {
+                int index = (int) pos & mask;
+                long diff = sequence.get(index) - (pos + 1);
+                if (diff == 0) {
+                    if (head.compareAndSet(pos, pos + 1)) {
+                        Handle<T> handle = slots.get(index);
+                        slots.lazySet(index, null);
+                        sequence.set(index, pos + mask + 1);
+                        return handle;
+                    }
+                    pos = head.get();
+                } else if (diff < 0) {
+                    return null;                        // empty
+                } else {
+                    pos = head.get();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package creationalpatterns.objectpool;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.Control;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH allocation benchmark: {@link ObjectPool} versus plain {@code new} for
+ * an 8 KB buffer and a {@code StringBuilder}, on one thread and handed from
+ * a producer to a consumer thread (released on the consumer, so every object
+ * travels back to its owner through the inbox).
+ *
+ * <p>Scores are operations per second.  Bytes allocated per operation and
+ * garbage collections come from JMH's GC profiler
+ * ({@code gc.alloc.rate.norm}, {@code gc.count}), which {@link #main} turns
+ * on:</p>
+ * <pre>
+ *   java -cp &lt;classpath&gt; creationalpatterns.objectpool.ObjectPoolBenchmark
+ *   java -cp &lt;classpath&gt; org.openjdk.jmh.Main ObjectPoolBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ObjectPoolBenchmark {
+    private static final int BUFFER = 8 * 1024;
+
+    private int i;
+
+    @State(Scope.Benchmark)
+    public static class Pools {
+        final ObjectPool<byte[]> buffers = new ObjectPool<>(() -> new byte[BUFFER], b -> { });
+        final ObjectPool<StringBuilder> builders = new ObjectPool<>(() -> new StringBuilder(128), sb -> sb.setLength(0));
+    }
+
+    /** Producer-to-consumer queue; neither side blocks, so both stop cleanly at the end of an iteration. */
+    @State(Scope.Group)
+    public static class Channel {
+        final Queue<Object> queue = new ArrayBlockingQueue<>(256);
+
+        void put(Object item, Control control) {
+            while (!queue.offer(item)) {
+                if (control.stopMeasurement) {
+                    discard(item);
+                    return;
+                }
+                Thread.yield();
+            }
+        }
+
+        Object take(Control control) {
+            Object item;
+            while ((item = queue.poll()) == null && !control.stopMeasurement) {
+                Thread.yield();
+            }
+            return item;
+        }
+
+        @TearDown(Level.Iteration)
+        public void drain() {
+            for (Object item; (item = queue.poll()) != null; ) {
+                discard(item);
+            }
+        }
+
+        private static void discard(Object item) {
+            if (item instanceof ObjectPool.Handle) {
+                ((ObjectPool.Handle<?>) item).release();
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] bufferNew() {
+        byte[] b = new byte[BUFFER];
+        b[i++ & (BUFFER - 1)] = 1;
+        return b;
+    }
+
+    @Benchmark
+    public byte bufferPooled(Pools pools) {
+        ObjectPool.Handle<byte[]> h = pools.buffers.acquire();
+        byte[] b = h.get();
+        b[i++ & (BUFFER - 1)] = 1;
+        byte first = b[0];
+        h.release();
+        return first;
+    }
+
+    @Benchmark
+    public void stringBuilderNew(Blackhole bh) {
+        bh.consume(message(new StringBuilder(128), i++));
+    }
+
+    @Benchmark
+    public void stringBuilderPooled(Pools pools, Blackhole bh) {
+        ObjectPool.Handle<StringBuilder> h = pools.builders.acquire();
+        bh.consume(message(h.get(), i++));
+        h.release();
+    }
+
+    @Benchmark
+    @Group("bufferNewCrossThread")
+    @GroupThreads(1)
+    public void bufferNewProduce(Channel channel, Control control) {
+        byte[] b = new byte[BUFFER];
+        b[i++ & (BUFFER - 1)] = 1;
+        channel.put(b, control);
+    }
+
+    @Benchmark
+    @Group("bufferNewCrossThread")
+    @GroupThreads(1)
+    public Object bufferNewConsume(Channel channel, Control control) {
+        return channel.take(control);
+    }
+
+    @Benchmark
+    @Group("bufferPooledCrossThread")
+    @GroupThreads(1)
+    public void bufferPooledProduce(Pools pools, Channel channel, Control control) {
+        ObjectPool.Handle<byte[]> h = pools.buffers.acquire();
+        h.get()[i++ & (BUFFER - 1)] = 1;
+        channel.put(h, control);
+    }
+
+    @Benchmark
+    @Group("bufferPooledCrossThread")
+    @GroupThreads(1)
+    public void bufferPooledConsume(Channel channel, Control control) {
+        Object h = channel.take(control);
+        if (h != null) {
+            ((ObjectPool.Handle<?>) h).release();
+        }
+    }
+
+    private static StringBuilder message(StringBuilder sb, int i) {
+        return sb.append("invoice ").append(i).append(" created for customer ").append(i & 1023);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ObjectPoolBenchmark.class.getName() + "\\.")
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,114 @@
+package creationalpatterns.objectpool;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH contention benchmark: every thread repeatedly acquires a connection,
+ * does a little work and releases it, against the original
+ * {@link SynchronizedConnectionPool} and the lock-free
+ * {@link DatabaseConnectionPool}.  Scores are acquire/release pairs per
+ * second, summed over all threads.
+ *
+ * <p>The old pool returns {@code null} when empty, so its callers have to
+ * retry; those empty-handed attempts are reported as the
+ * {@code emptyTries} secondary result.  Its "No available connections."
+ * lines are discarded during the run.</p>
+ *
+ * <p>{@link #main} runs the suite at 1, 2, 4, 8 and 16 threads; a single
+ * thread count also works through JMH's own launcher:</p>
+ * <pre>
+ *   java -cp &lt;classpath&gt; creationalpatterns.objectpool.PoolContentionBenchmark
+ *   java -cp &lt;classpath&gt; org.openjdk.jmh.Main PoolContentionBenchmark -t 8
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PoolContentionBenchmark {
+    private static final int[] THREADS = {1, 2, 4, 8, 16};
+    private static final int WORK = 50;
+
+    @Param({"4"})
+    public int poolSize;
+
+    private SynchronizedConnectionPool synchronizedPool;
+    private DatabaseConnectionPool lockFreePool;
+    private PrintStream stdout;
+
+    /** Per-thread count of attempts that came back empty-handed. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Misses {
+        public long emptyTries;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        stdout = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override public void write(int b) { }
+            @Override public void write(byte[] b, int off, int len) { }
+        }));
+        synchronizedPool = new SynchronizedConnectionPool(poolSize);
+        lockFreePool = new DatabaseConnectionPool(poolSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        lockFreePool.close();                        // stops its reaper thread
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public void synchronizedPool(Misses misses) {
+        DatabaseConnection connection;
+        while ((connection = synchronizedPool.acquireConnection()) == null) {
+            misses.emptyTries++;
+            Thread.yield();
+        }
+        Blackhole.consumeCPU(WORK);
+        synchronizedPool.releaseConnection(connection);
+    }
+
+    @Benchmark
+    public void lockFree() throws InterruptedException {
+        DatabaseConnection connection = lockFreePool.acquire(1, TimeUnit.SECONDS);
+        Blackhole.consumeCPU(WORK);
+        lockFreePool.releaseConnection(connection);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREADS) {
+            Options options = new OptionsBuilder()
+                    .include(PoolContentionBenchmark.class.getName() + "\\.")
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
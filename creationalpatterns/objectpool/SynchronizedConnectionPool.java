@@ -0,0 +1,41 @@
+package creationalpatterns.objectpool;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Original monitor-based pool: every acquire and release takes the same lock
+ * and scans the whole list.  Kept as the baseline for
+ * {@link PoolContentionBenchmark}; use {@link DatabaseConnectionPool} instead.
+ */
+public class SynchronizedConnectionPool {
+    private final List<DatabaseConnection> connections;
+    private final int maxPoolSize;
+
+    public SynchronizedConnectionPool(int maxPoolSize) {
+        this.connections = new ArrayList<>();
+        this.maxPoolSize = maxPoolSize;
+
+        // Initialize the pool with connections
+        for (int i = 0; i < maxPoolSize; i++) {
+            connections.add(new DatabaseConnection());
+        }
+    }
+
+    // Method to acquire a connection
+    public synchronized DatabaseConnection acquireConnection() {
+        for (DatabaseConnection connection : connections) {
+            if (!connection.isInUse()) {
+                connection.setInUse(true);
+                return connection;
+            }
+        }
+        System.out.println("No available connections.");
+        return null;
+    }
+
+    // Method to release a connection back to the pool
+    public synchronized void releaseConnection(DatabaseConnection connection) {
+        connection.setInUse(false);
+    }
+}
@@ -0,0 +1,202 @@
+package creationalpatterns.prototype;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Immutable text stored as a sequence of chunks of at most {@value #CHUNK}
+ * characters.
+ *
+ * <p>Because it never changes, any number of documents can share one
+ * instance, and cloning a document is just copying a reference.  An edit
+ * returns a new ChunkedText that reuses every chunk it did not touch: only
+ * the chunks overlapping the edited range are rebuilt, plus the array of
+ * chunk references.  Editing one word of a 1 MB text copies about 4 KB of
+ * characters instead of 1 MB.</p>
+ */
+public final class ChunkedText implements CharSequence {
+    /** Characters per chunk; an edit rebuilds at least one chunk. */
+    public static final int CHUNK = 4096;
+
+    private static final ChunkedText EMPTY = new ChunkedText(new String[0], new int[] {0});
+
+    private final String[] chunks;
+    private final int[] starts;              // starts[i] = offset of chunks[i]; starts[chunks.length] = length
+
+    private ChunkedText(String[] chunks, int[] starts) {
+        this.chunks = chunks;
+        this.starts = starts;
+    }
+
+    public static ChunkedText of(String text) {
+        if (text == null || text.isEmpty()) {
+            return EMPTY;
+        }
+        String[] pieces = split(text);
+        return new ChunkedText(pieces, offsets(pieces, 0, new int[pieces.length + 1], 0));
+    }
+
+    @Override
+    public int length() {
+        return starts[chunks.length];
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length()) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length());
+        }
+        int i = chunkIndex(index);
+        return chunks[i].charAt(index - starts[i]);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return substring(start, end);
+    }
+
+    public String substring(int start, int end) {
+        checkRange(start, end);
+        if (start == end) {
+            return "";
+        }
+        int first = chunkIndex(start);
+        int last = chunkIndex(end - 1);
+        if (first == last) {
+            return chunks[first].substring(start - starts[first], end - starts[first]);
+        }
+        StringBuilder sb = new StringBuilder(end - start);
+        sb.append(chunks[first], start - starts[first], chunks[first].length());
+        for (int i = first + 1; i < last; i++) {
+            sb.append(chunks[i]);
+        }
+        sb.append(chunks[last], 0, end - starts[last]);
+        return sb.toString();
+    }
+
+    /** Index of the first {@code target} at or after {@code from}, or -1; matches may span chunks. */
+    public int indexOf(String target, int from) {
+        int length = length();
+        from = Math.max(0, from);
+        if (target.isEmpty()) {
+            return Math.min(from, length);
+        }
+        if (from >= length) {
+            return -1;
+        }
+        int overlap = target.length() - 1;
+        for (int i = chunkIndex(from); i < chunks.length; i++) {
+            int local = chunks[i].indexOf(target, Math.max(0, from - starts[i]));
+            if (local >= 0) {
+                return starts[i] + local;
+            }
+            // A match that starts in this chunk and ends in a later one
+            int end = starts[i + 1];
+            if (overlap > 0 && end < length) {
+                int tailStart = Math.max(from, Math.max(starts[i], end - overlap));
+                String seam = substring(tailStart, Math.min(length, end + overlap));
+                int found = seam.indexOf(target);
+                if (found >= 0) {
+                    return tailStart + found;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /** A copy with {@code [start, end)} replaced; chunks outside that range are shared, not copied. */
+    public ChunkedText replace(int start, int end, String replacement) {
+        checkRange(start, end);
+        if (chunks.length == 0) {
+            return of(replacement);
+        }
+        int first = chunkIndex(Math.min(start, length() - 1));
+        int last = end > start ? chunkIndex(end - 1) : first;
+        String middle = chunks[first].substring(0, start - starts[first])
+                + replacement
+                + chunks[last].substring(end - starts[last]);
+        String[] pieces = split(middle);
+
+        int kept = chunks.length - (last - first + 1);
+        if (kept + pieces.length == 0) {
+            return EMPTY;
+        }
+        String[] newChunks = new String[kept + pieces.length];
+        System.arraycopy(chunks, 0, newChunks, 0, first);
+        System.arraycopy(pieces, 0, newChunks, first, pieces.length);
+        System.arraycopy(chunks, last + 1, newChunks, first + pieces.length, chunks.length - last - 1);
+        int[] newStarts = new int[newChunks.length + 1];
+        System.arraycopy(starts, 0, newStarts, 0, first + 1);
+        return new ChunkedText(newChunks, offsets(newChunks, first, newStarts, starts[first]));
+    }
+
+    public ChunkedText insert(int offset, String text) {
+        return replace(offset, offset, text);
+    }
+
+    public ChunkedText delete(int start, int end) {
+        return replace(start, end, "");
+    }
+
+    public ChunkedText append(String text) {
+        return replace(length(), length(), text);
+    }
+
+    public int chunkCount() {
+        return chunks.length;
+    }
+
+    /** How many chunks this text holds by the same reference as {@code other} – i.e. shares in memory. */
+    public int sharedChunks(ChunkedText other) {
+        Set<String> theirs = Collections.newSetFromMap(new IdentityHashMap<>());
+        theirs.addAll(Arrays.asList(other.chunks));
+        int shared = 0;
+        for (String chunk : chunks) {
+            if (theirs.contains(chunk)) {
+                shared++;
+            }
+        }
+        return shared;
+    }
+
+    /** The whole text as one String, built on every call; use {@link #substring} for a part of it. */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(length());
+        for (String chunk : chunks) {
+            sb.append(chunk);
+        }
+        return sb.toString();
+    }
+
+    private int chunkIndex(int offset) {
+        int i = Arrays.binarySearch(starts, 0, chunks.length, offset);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    private void checkRange(int start, int end) {
+        if (start < 0 || end > length() || start > end) {
+            throw new IndexOutOfBoundsException("range [" + start + ", " + end + "), length " + length());
+        }
+    }
+
+    private static String[] split(String text) {
+        int n = (text.length() + CHUNK - 1) / CHUNK;
+        String[] pieces = new String[n];
+        for (int i = 0; i < n; i++) {
+            pieces[i] = text.substring(i * CHUNK, Math.min(text.length(), (i + 1) * CHUNK));
+        }
+        return pieces;
+    }
+
+    // Fill starts[from + 1 ..] from the chunk lengths, given starts[from] = offset
+    private static int[] offsets(String[] chunks, int from, int[] starts, int offset) {
+        starts[from] = offset;
+        for (int i = from; i < chunks.length; i++) {
+            starts[i + 1] = starts[i] + chunks[i].length();
+        }
+        return starts;
+    }
+}
@@ -2,13 +2,21 @@ package creationalpatterns.prototype;
 
 /**
  * Concrete class implementing the Prototype interface.
+ *
+ * <p>The content is held as an immutable {@link ChunkedText}, so a clone
+ * shares it with the original instead of copying it, and edits made through
+ * {@link #replaceContent} or {@link #fill} copy only the chunks they touch.</p>
  */
 public class Document implements Prototype {
     private String title;
-    private String content;
+    private ChunkedText content;
 
     // Constructor
     public Document(String title, String content) {
+        this(title, ChunkedText.of(content));
+    }
+
+    private Document(String title, ChunkedText content) {
         this.title = title;
         this.content = content;
     }
@@ -19,7 +27,7 @@ public class Document implements Prototype {
     }
 
     public void setContent(String content) {
-        this.content = content;
+        this.content = ChunkedText.of(content);
     }
 
     public String getTitle() {
@@ -27,12 +35,34 @@ public class Document implements Prototype {
     }
 
     public String getContent() {
+        return content.toString();
+    }
+
+    // The content without flattening it into one String
+    public ChunkedText getText() {
         return content;
     }
 
+    // Replace the characters in [start, end) of the content
+    public void replaceContent(int start, int end, String replacement) {
+        this.content = content.replace(start, end, replacement);
+    }
+
+    // Replace every occurrence of a placeholder, e.g. fill("{{name}}", "Alice")
+    public void fill(String placeholder, String value) {
+        if (placeholder.isEmpty()) {
+            throw new IllegalArgumentException("placeholder must not be empty");
+        }
+        ChunkedText text = content;
+        for (int at = text.indexOf(placeholder, 0); at >= 0; at = text.indexOf(placeholder, at + value.length())) {
+            text = text.replace(at, at + placeholder.length(), value);
+        }
+        this.content = text;
+    }
+
     @Override
     public Prototype clone() {
-        // Create a shallow copy of the current object
+        // Shares the immutable content: O(1) whatever its size
         return new Document(this.title, this.content);
     }
 
@@ -43,4 +73,4 @@ public class Document implements Prototype {
                 ", content='" + content + '\'' +
                 '}';
     }
-}
\ No newline at end of file
+}
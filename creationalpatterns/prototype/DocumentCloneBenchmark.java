@@ -0,0 +1,123 @@
+package creationalpatterns.prototype;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * Mass cloning benchmark: stamp out documents from a 1 MB template and fill
+ * in a few placeholders in each, with the chunked {@link Document} versus
+ * the previous representation (one {@code String}, so every edit rebuilds all
+ * of it).  Filling placeholders has to search the text either way; editing
+ * at known offsets shows the copy-on-write cost on its own.
+ *
+ * <p>Prints documents per second, and the heap retained per document while
+ * {@value #KEPT} edited documents are kept alive (used heap after a full GC).
+ * A plain {@code main}, since the retained-heap figure needs full GCs around
+ * each case; every case runs once to warm up before it is measured.</p>
+ */
+public class DocumentCloneBenchmark {
+    private static final int TEMPLATE_CHARS = 1 << 20;
+    private static final int CLONES = 2_000;
+    private static final int KEPT = 300;
+    private static final String[] FIELDS = {"{{customer}}", "{{date}}", "{{amount}}"};
+
+    private interface Stamp {
+        Object create(int i);
+    }
+
+    private static volatile Object sink;
+
+    // Document as it was before ChunkedText: the content is one String
+    private static final class FlatDocument {
+        final String title;
+        final String content;
+
+        FlatDocument(String title, String content) {
+            this.title = title;
+            this.content = content;
+        }
+    }
+
+    public static void main(String[] args) {
+        String text = template();
+        PrototypeRegistry<Document> registry = new PrototypeRegistry<>();
+        registry.register("contract", new Document("Contract", text));
+
+        Stamp chunked = i -> {
+            Document doc = registry.create("contract");
+            doc.fill(FIELDS[0], "Customer " + i);
+            doc.fill(FIELDS[1], "2024-01-" + (i % 28 + 1));
+            doc.fill(FIELDS[2], Integer.toString(i * 10));
+            return doc;
+        };
+        // What cloning and editing cost when the content is a single String
+        Stamp flat = i -> {
+            String content = text;
+            content = content.replace(FIELDS[0], "Customer " + i);
+            content = content.replace(FIELDS[1], "2024-01-" + (i % 28 + 1));
+            content = content.replace(FIELDS[2], Integer.toString(i * 10));
+            return new FlatDocument("Contract", content);
+        };
+        Stamp cloneOnly = i -> registry.create("contract");
+        // Edits at known offsets: no search, only the copy-on-write cost
+        int[] at = {text.indexOf(FIELDS[0]), text.indexOf(FIELDS[1]), text.indexOf(FIELDS[2])};
+        Stamp chunkedAtOffsets = i -> {
+            Document doc = registry.create("contract");
+            doc.replaceContent(at[2], at[2] + FIELDS[2].length(), Integer.toString(i * 10));
+            doc.replaceContent(at[1], at[1] + FIELDS[1].length(), "2024-01-" + (i % 28 + 1));
+            doc.replaceContent(at[0], at[0] + FIELDS[0].length(), "Customer " + i);
+            return doc;
+        };
+
+        System.out.printf("template: %d chars, %d chunks%n", text.length(),
+                registry.create("contract").getText().chunkCount());
+        System.out.printf("%-28s %12s %16s%n", "case", "docs/s", "retained KB/doc");
+        measure("clone only (chunked)", cloneOnly);
+        measure("clone + 3 edits at offsets", chunkedAtOffsets);
+        measure("clone + 3 edits (chunked)", chunked);
+        measure("clone + 3 edits (String)", flat);
+    }
+
+    // A few placeholders, spread through a 1 MB template
+    private static String template() {
+        StringBuilder sb = new StringBuilder(TEMPLATE_CHARS);
+        int clause = 0;
+        while (sb.length() < TEMPLATE_CHARS) {
+            sb.append("Clause ").append(++clause).append(". The parties agree to the terms set out below. ");
+            if (clause % 4000 == 1) {
+                sb.append(FIELDS[clause / 4000 % FIELDS.length]).append(' ');
+            }
+        }
+        sb.setLength(TEMPLATE_CHARS);
+        return sb.toString();
+    }
+
+    private static void measure(String name, Stamp stamp) {
+        for (int i = 0; i < CLONES; i++) {          // warm-up
+            sink = stamp.create(i);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < CLONES; i++) {
+            sink = stamp.create(i);
+        }
+        double perSecond = CLONES * 1e9 / (System.nanoTime() - start);
+
+        sink = null;
+        long before = usedHeap();
+        Object[] kept = new Object[KEPT];
+        for (int i = 0; i < KEPT; i++) {
+            kept[i] = stamp.create(i);
+        }
+        long after = usedHeap();
+        sink = kept;
+        System.out.printf("%-28s %12.0f %16.1f%n", name, perSecond, Math.max(0, after - before) / 1024.0 / KEPT);
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
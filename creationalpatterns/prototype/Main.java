@@ -14,5 +14,13 @@ public class Main {
         // Display original and cloned Documents
         System.out.println("Original Document: " + originalDocument);
         System.out.println("Cloned Document: " + clonedDocument);
+
+        // Register templates once, then stamp out copies by name
+        PrototypeRegistry<Document> templates = new PrototypeRegistry<>();
+        templates.register("letter", new Document("Letter", "Dear {{name}}, thank you for your order."));
+        Document letter = templates.create("letter");
+        letter.fill("{{name}}", "Alice");
+        System.out.println("From template: " + letter);
+        System.out.println("Template unchanged: " + templates.create("letter"));
     }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package creationalpatterns.prototype;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of named prototypes: register a template once, then stamp out
+ * copies by name.  Safe to share between threads.
+ *
+ * <pre>
+ *   PrototypeRegistry&lt;Document&gt; templates = new PrototypeRegistry&lt;&gt;();
+ *   templates.register("invoice", new Document("Invoice", invoiceText));
+ *   Document doc = templates.create("invoice");
+ *   doc.fill("{{customer}}", "ACME");
+ * </pre>
+ *
+ * @param <T> prototype type; {@code clone()} of a T must return a T
+ */
+public class PrototypeRegistry<T extends Prototype> {
+    private final ConcurrentMap<String, T> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Add or replace a template.  A clone is stored, so later changes to
+     * {@code template} do not leak into documents created from it.
+     */
+    public void register(String name, T template) {
+        templates.put(name, copy(template));
+    }
+
+    public void unregister(String name) {
+        templates.remove(name);
+    }
+
+    /**
+     * A new copy of the named template.
+     *
+     * @throws IllegalArgumentException if no template has this name
+     */
+    public T create(String name) {
+        T template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown template: " + name);
+        }
+        return copy(template);
+    }
+
+    public Set<String> names() {
+        return Collections.unmodifiableSet(templates.keySet());
+    }
+
+    @SuppressWarnings("unchecked")
+    private T copy(T prototype) {
+        return (T) prototype.clone();
+    }
+}
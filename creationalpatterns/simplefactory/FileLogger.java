@@ -1,13 +1,346 @@
 package creationalpatterns.simplefactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
 // Implement a File Logger
 /**
  * FileLogger is a concrete implementation of Logger that logs messages to a file.
+ *
+ * <p>Lines are appended to a memory-mapped segment file, so logging is a
+ * memory copy, not a system call.  Threads reserve their bytes with a single
+ * atomic add and copy in parallel; there is no lock on the write path.</p>
+ *
+ * <ul>
+ *   <li><b>Rotation</b> – a segment is sealed when it is full or older than
+ *       the roll interval; it is then trimmed to the bytes actually written
+ *       and the next segment ({@code <file>.1}, {@code <file>.2}, ... numbered
+ *       after any already on disk) is mapped.</li>
+ *   <li><b>Durability</b> – written lines are in the page cache straight away
+ *       and survive a crash of the JVM.  To survive a crash of the machine,
+ *       {@link Builder#forceOnRoll} syncs each sealed segment,
+ *       {@link Builder#forceEvery} syncs the active one periodically, and
+ *       {@link #force()} syncs on demand.</li>
+ * </ul>
+ *
+ * <p>Call {@link #close()} (LoggerFactory does this on JVM shutdown) to trim
+ * the last segment.</p>
  */
-public class FileLogger implements Logger {
+public class FileLogger implements Logger, AutoCloseable {
+    private static final int MAX_LINE = 64 * 1024;
+
+    private final Path base;
+    private final long segmentSize;
+    private final long rollIntervalMillis;
+    private final boolean forceOnRoll;
+    private final Object rollLock = new Object();
+    private final AtomicInteger nextIndex;
+    private final ThreadLocal<Writer> writers = ThreadLocal.withInitial(Writer::new);
+    private final ScheduledExecutorService forcer;
+    private volatile Segment current;
+    private volatile boolean closed;
+
+    /** Logs to {@code app.log.N} in the working directory with default settings. */
+    public FileLogger() {
+        this(builder(Paths.get("app.log")));
+    }
+
+    public FileLogger(Path file) {
+        this(builder(file));
+    }
+
+    private FileLogger(Builder b) {
+        this.base = b.file.toAbsolutePath();
+        this.segmentSize = b.segmentSize;
+        this.rollIntervalMillis = b.rollInterval.toMillis();
+        this.forceOnRoll = b.forceOnRoll;
+        try {
+            Path dir = base.getParent();
+            Files.createDirectories(dir);
+            this.nextIndex = new AtomicInteger(highestIndex(dir) + 1);
+            this.current = openSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot open log " + base, e);
+        }
+        if (b.forceEvery.isZero()) {
+            this.forcer = null;
+        } else {
+            this.forcer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "file-logger-force");
+                t.setDaemon(true);
+                return t;
+            });
+            long period = b.forceEvery.toMillis();
+            forcer.scheduleWithFixedDelay(this::force, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public static Builder builder(Path file) {
+        return new Builder(file);
+    }
+
+    /**
+     * Append {@code message} and a line break.
+     *
+     * @throws IllegalStateException if the logger has been closed, or a
+     *         segment could not be rolled
+     */
     @Override
     public void log(String message) {
-        // Simulate file logging (for simplicity, using System.out)
-        System.out.println("File Logger: " + message);
+        Writer w = writers.get();
+        int length = w.encode(message);
+        while (!closed) {
+            Segment seg = current;
+            if (rollIntervalMillis > 0 && System.currentTimeMillis() >= seg.rollAt) {
+                roll(seg);
+                continue;
+            }
+            seg.writers.incrementAndGet();
+            try {
+                long start = seg.claimed.getAndAdd(length);
+                if (start + length <= segmentSize) {
+                    w.copyInto(seg, (int) start, length);
+                    return;
+                }
+                seg.limit.accumulate(start);            // first failed claim marks the end
+            } finally {
+                seg.writers.decrementAndGet();
+            }
+            roll(seg);
+        }
+        throw new IllegalStateException("log " + base + " is closed");
+    }
+
+    /** Sync the active segment to the storage device. */
+    public void force() {
+        Segment seg = current;
+        if (!closed) {
+            seg.map.force();
+        }
+    }
+
+    /** Path of the segment currently written to. */
+    public Path currentFile() {
+        return current.path;
+    }
+
+    /** Seal and trim the active segment; later calls to {@link #log} throw. */
+    @Override
+    public void close() {
+        synchronized (rollLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (forcer != null) {
+                forcer.shutdownNow();
+            }
+            seal(current, true);
+        }
+    }
+
+    /* ---------------------------------------------------------------- */
+    /* Segments                                                         */
+    /* ---------------------------------------------------------------- */
+
+    private static final class Segment {
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer map;
+        final long rollAt;
+        final AtomicLong claimed = new AtomicLong();
+        final AtomicInteger writers = new AtomicInteger();
+        final LongAccumulator limit;
+
+        Segment(Path path, FileChannel channel, MappedByteBuffer map, long rollAt, long size) {
+            this.path = path;
+            this.channel = channel;
+            this.map = map;
+            this.rollAt = rollAt;
+            this.limit = new LongAccumulator(Math::min, size);
+        }
+    }
+
+    private Segment openSegment() throws IOException {
+        Path path = base.resolveSibling(base.getFileName() + "." + nextIndex.getAndIncrement());
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        long rollAt = rollIntervalMillis > 0 ? System.currentTimeMillis() + rollIntervalMillis : Long.MAX_VALUE;
+        return new Segment(path, channel, map, rollAt, segmentSize);
+    }
+
+    private void roll(Segment full) {
+        synchronized (rollLock) {
+            if (closed || current != full) {
+                return;                                   // someone else rolled already
+            }
+            try {
+                current = openSegment();
+            } catch (IOException e) {
+                System.err.println("[LOG] cannot roll " + base + ": " + e);
+                closed = true;
+            }
+            seal(full, forceOnRoll);
+        }
+    }
+
+    // No claim can succeed after this; wait for in-flight copies, then trim the file
+    private void seal(Segment seg, boolean force) {
+        seg.limit.accumulate(seg.claimed.getAndAdd(segmentSize));
+        while (seg.writers.get() > 0) {
+            Thread.yield();
+        }
+        try {
+            if (force) {
+                seg.map.force();
+            }
+            seg.channel.truncate(seg.limit.get());
+            seg.channel.close();
+        } catch (IOException e) {
+            System.err.println("[LOG] cannot trim " + seg.path + ": " + e);
+        }
+    }
+
+    private int highestIndex(Path dir) throws IOException {
+        String prefix = base.getFileName() + ".";
+        int highest = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, prefix + "*")) {
+            for (Path p : files) {
+                try {
+                    highest = Math.max(highest, Integer.parseInt(p.getFileName().toString().substring(prefix.length())));
+                } catch (NumberFormatException ignored) {
+                    // not one of ours
+                }
+            }
+        }
+        return highest;
+    }
+
+    /* ---------------------------------------------------------------- */
+    /* Per-thread encoding                                              */
+    /* ---------------------------------------------------------------- */
+
+    // Scratch bytes plus a private view of the current segment: no allocation per line
+    private static final class Writer {
+        // Unpaired surrogates become '?'; a line longer than MAX_LINE is cut at a character boundary
+        final CharsetEncoder utf8 = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        byte[] bytes = new byte[256];
+        ByteBuffer out = ByteBuffer.wrap(bytes);
+        Segment viewOf;
+        ByteBuffer view;
+
+        // message + '\n' as UTF-8 into bytes; returns the length, capped at MAX_LINE
+        int encode(String message) {
+            String text = message == null ? "null" : message;
+            int length = text.length();
+            int limit = Math.min(length, MAX_LINE - 1);
+            if (bytes.length <= limit) {
+                grow(limit + 1);
+            }
+            int n = 0;
+            for (char c; n < limit && (c = text.charAt(n)) < 0x80; n++) {
+                bytes[n] = (byte) c;                    // ASCII, the common case, copied directly
+            }
+            if (n < limit) {
+                n = encode(CharBuffer.wrap(text, n, length), n);
+            }
+            bytes[n++] = '\n';
+            return n;
+        }
+
+        // The encoder takes over at the first non-ASCII character
+        private int encode(CharBuffer chars, int n) {
+            out.limit(bytes.length - 1).position(n);    // room for the '\n'
+            utf8.reset();
+            while (utf8.encode(chars, out, true).isOverflow() && bytes.length < MAX_LINE) {
+                int written = out.position();
+                grow(bytes.length + 1);
+                out.limit(bytes.length - 1).position(written);
+            }
+            utf8.flush(out);
+            return out.position();
+        }
+
+        private void grow(int capacity) {
+            bytes = Arrays.copyOf(bytes, Math.min(MAX_LINE, Math.max(capacity, bytes.length * 2)));
+            out = ByteBuffer.wrap(bytes);
+        }
+
+        void copyInto(Segment seg, int offset, int length) {
+            if (viewOf != seg) {
+                viewOf = seg;
+                view = seg.map.duplicate();
+            }
+            view.position(offset);
+            view.put(bytes, 0, length);
+        }
+    }
+
+    /** Settings for a {@link FileLogger}. */
+    public static final class Builder {
+        private final Path file;
+        private long segmentSize = 64L * 1024 * 1024;
+        private Duration rollInterval = Duration.ZERO;
+        private boolean forceOnRoll = false;
+        private Duration forceEvery = Duration.ZERO;
+
+        private Builder(Path file) {
+            this.file = Objects.requireNonNull(file);
+        }
+
+        /** Roll when a segment reaches this size (default 64 MB). */
+        public Builder segmentSize(long bytes) {
+            if (bytes < MAX_LINE || bytes > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("segmentSize must be between 64 KB and 2 GB");
+            }
+            this.segmentSize = bytes;
+            return this;
+        }
+
+        /** Also roll when a segment is this old; zero (default) rolls by size only. */
+        public Builder rollEvery(Duration interval) {
+            this.rollInterval = Objects.requireNonNull(interval);
+            return this;
+        }
+
+        /** Sync each segment to disk when it is sealed. */
+        public Builder forceOnRoll(boolean force) {
+            this.forceOnRoll = force;
+            return this;
+        }
+
+        /** Sync the active segment this often; zero (default) never does. */
+        public Builder forceEvery(Duration interval) {
+            this.forceEvery = Objects.requireNonNull(interval);
+            return this;
+        }
+
+        public FileLogger build() {
+            return new FileLogger(this);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package creationalpatterns.simplefactory;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Logging throughput in MB/s: the memory-mapped {@link FileLogger} versus a
+ * {@code FileOutputStream} that issues one {@code write} system call per line,
+ * from 1 to 8 threads, for 100-byte lines.
+ *
+ * <p>A plain {@code main} that writes a fixed number of lines per case, so
+ * every run produces the same files; every case runs once to warm up before
+ * it is measured.  Files go to a temporary directory that is emptied after
+ * each thread count.</p>
+ */
+public class FileLoggerBenchmark {
+    private static final int LINES = 2_000_000;
+    private static final String LINE = String.format("%099d", 0).replace('0', 'x');
+
+    private interface Sink {
+        void log(String line) throws IOException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("file-logger-bench");
+        try {
+            System.out.printf("%-26s %8s %10s%n", "case", "threads", "MB/s");
+            for (int threads : new int[] {1, 2, 4, 8}) {
+                Path mapped = dir.resolve("mapped-" + threads + ".log");
+                try (FileLogger logger = FileLogger.builder(mapped).segmentSize(128L * 1024 * 1024).build()) {
+                    measure("mapped FileLogger", threads, logger::log);
+                }
+                try (OutputStream out = new FileOutputStream(dir.resolve("direct-" + threads + ".log").toFile())) {
+                    // Same bytes per line, each written straight through to the OS
+                    measure("write() per line", threads, line -> {
+                        byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+                        out.write(bytes);
+                    });
+                }
+                clear(dir);
+            }
+        } finally {
+            clear(dir);
+            Files.delete(dir);
+        }
+    }
+
+    private static void clear(Path dir) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path p : files) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    private static void measure(String name, int threads, Sink sink) throws InterruptedException {
+        run(threads, sink);                           // warm-up
+        long start = System.nanoTime();
+        run(threads, sink);
+        long elapsed = System.nanoTime() - start;
+        double megabytes = (double) LINES * (LINE.length() + 1) / (1024 * 1024);
+        System.out.printf("%-26s %8d %10.0f%n", name, threads, megabytes * 1e9 / elapsed);
+    }
+
+    private static void run(int threads, Sink sink) throws InterruptedException {
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    for (int i = 0, n = LINES / threads; i < n; i++) {
+                        sink.log(LINE);
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+}
@@ -1,22 +1,76 @@
 package creationalpatterns.simplefactory;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 // Create the Simple Factory
 /**
  * LoggerFactory is a factory class responsible for creating logger instances.
+ *
+ * <p>Loggers are thread-safe and cached: asking twice for the same type and
+ * target returns the same instance, so every caller shares one file (and one
+ * set of mapped segments) instead of opening it again.  Cached file loggers
+ * are closed on JVM shutdown.</p>
  */
 public class LoggerFactory {
+    private static final String DEFAULT_TARGET = "app.log";
+    private static final ConcurrentMap<Object, Logger> CACHE = new ConcurrentHashMap<>();
+    private static final ConsoleLogger CONSOLE = new ConsoleLogger();
+
+    static {
+        Thread closer = new Thread(LoggerFactory::closeAll, "logger-factory-shutdown");
+        Runtime.getRuntime().addShutdownHook(closer);
+    }
+
     /**
      * Factory method to create a logger based on the type specified.
-     * 
+     * A file logger writes to {@code app.log.N} in the working directory.
+     *
      * @param type The type of logger to create ("console" or "file").
      * @return An instance of Logger.
      */
     public static Logger createLogger(String type) {
+        return createLogger(type, DEFAULT_TARGET);
+    }
+
+    /**
+     * Factory method to create a logger for a type and target.
+     *
+     * @param type   The type of logger to create ("console" or "file").
+     * @param target The log file for "file"; ignored for "console".
+     * @return The shared Logger for this type and target.
+     */
+    public static Logger createLogger(String type, String target) {
         if ("console".equalsIgnoreCase(type)) {
-            return new ConsoleLogger();
+            return CONSOLE;
         } else if ("file".equalsIgnoreCase(type)) {
-            return new FileLogger();
+            Path file = Paths.get(target).toAbsolutePath().normalize();
+            return CACHE.computeIfAbsent(Arrays.asList(type.toLowerCase(Locale.ROOT), file),
+                    key -> new FileLogger(file));
         }
         throw new IllegalArgumentException("Unknown logger type: " + type);
     }
-}
\ No newline at end of file
+
+    /**
+     * Close every cached logger that holds a file; the next request opens a
+     * new segment.  Loggers handed out before are closed too, and their
+     * {@code log} throws {@link IllegalStateException} rather than dropping
+     * the message: callers must ask the factory again.
+     */
+    public static void closeAll() {
+        for (Object key : CACHE.keySet()) {
+            Logger logger = CACHE.remove(key);
+            if (logger instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) logger).close();
+                } catch (Exception e) {
+                    System.err.println("[LOG] cannot close " + key + ": " + e);
+                }
+            }
+        }
+    }
+}
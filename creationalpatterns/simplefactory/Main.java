@@ -21,6 +21,10 @@ public class Main {
         Logger fileLogger = LoggerFactory.createLogger("file");
         fileLogger.log("This is a message to the file logger.");
 
+        // Same type and target: the factory hands back the same instance
+        System.out.println("Same file logger: " + (fileLogger == LoggerFactory.createLogger("file")));
+        System.out.println("Writing to " + ((FileLogger) fileLogger).currentFile());
+
         // Attempting to create an unsupported logger type
         try {
             Logger unknownLogger = LoggerFactory.createLogger("database");
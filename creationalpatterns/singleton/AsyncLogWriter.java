@@ -0,0 +1,403 @@
+package creationalpatterns.singleton;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asynchronous backend for the singleton loggers: callers publish messages
+ * into a preallocated ring buffer and return immediately; one background
+ * thread writes them out in batches.
+ *
+ * <p>How it works (the LMAX Disruptor scheme, reduced to one consumer):</p>
+ * <ul>
+ *   <li>Producers claim the next sequence number with a compare-and-set, store
+ *       the message into the slot's preallocated event and mark the slot
+ *       published.  No lock and no allocation per event.</li>
+ *   <li>The consumer takes every consecutive published event, encodes them as
+ *       UTF-8 into one direct buffer and writes it to a {@link WritableByteChannel}
+ *       – one write per batch instead of one synchronised {@code println}
+ *       per message.</li>
+ *   <li>When the consumer has nothing to do it waits according to the
+ *       {@link WaitStrategy}; when the ring is full producers follow the
+ *       {@link FullPolicy} – drop the message (and count it) or wait for
+ *       space.</li>
+ * </ul>
+ *
+ * <pre>
+ *   AsyncLogWriter writer = AsyncLogWriter.builder()
+ *           .capacity(8192)
+ *           .waitStrategy(AsyncLogWriter.WaitStrategy.YIELDING)
+ *           .whenFull(AsyncLogWriter.FullPolicy.DROP)
+ *           .build();
+ *   Logger.getInstance().enableAsync(writer);
+ * </pre>
+ */
+public final class AsyncLogWriter implements AutoCloseable {
+
+    /** What the consumer does while the ring is empty. */
+    public enum WaitStrategy {
+        /** Spin on the CPU – lowest latency, burns a core. */
+        BUSY_SPIN,
+        /** Spin briefly, then {@link Thread#yield()}. */
+        YIELDING,
+        /** Spin briefly, then park for 100 µs at a time. */
+        SLEEPING,
+        /** Sleep on a condition; producers wake the consumer.  Cheapest when idle. */
+        BLOCKING
+    }
+
+    /** What a producer does when every slot is still unconsumed. */
+    public enum FullPolicy {
+        /** Discard the message and count it in {@link #droppedCount()}. */
+        DROP,
+        /** Wait until the consumer frees a slot. */
+        BLOCK
+    }
+
+    private static final int SPIN_TRIES = 100;
+
+    // One preallocated event per slot; only the message reference changes
+    private static final class Event {
+        String message;
+    }
+
+    private final Event[] events;
+    private final int mask;
+    private final int indexShift;
+    private final AtomicIntegerArray published;        // lap number of the last publish per slot
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final AtomicLong consumed = new AtomicLong(-1);
+    private volatile long consumedCache = -1;          // producers' view of consumed
+
+    private final WaitStrategy waitStrategy;
+    private final FullPolicy fullPolicy;
+    private final byte[] prefix;
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder utf8 = StandardCharsets.UTF_8.newEncoder()    // consumer thread only
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition wakeUp = lock.newCondition();
+    private volatile boolean consumerSleeping;
+    private volatile boolean running = true;
+    private final Thread consumer;
+
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong batches = new AtomicLong();
+
+    private AsyncLogWriter(Builder b) {
+        int capacity = Integer.highestOneBit(Math.max(2, b.capacity - 1)) << 1;
+        this.events = new Event[capacity];
+        for (int i = 0; i < capacity; i++) {
+            events[i] = new Event();
+        }
+        this.mask = capacity - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(capacity);
+        this.published = new AtomicIntegerArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+        this.waitStrategy = b.waitStrategy;
+        this.fullPolicy = b.fullPolicy;
+        this.prefix = b.prefix.getBytes(StandardCharsets.UTF_8);
+        this.channel = b.channel;
+        this.buffer = ByteBuffer.allocateDirect(b.bufferSize);
+        this.consumer = new Thread(this::consume, "async-logger");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Queue one message.  Never blocks with {@link FullPolicy#DROP}.
+     *
+     * @return {@code false} if the message was dropped (ring full or writer closed)
+     */
+    public boolean publish(String message) {
+        long sequence = claim();
+        if (sequence < 0) {
+            dropped.increment();
+            return false;
+        }
+        events[(int) sequence & mask].message = message;
+        published.lazySet((int) sequence & mask, (int) (sequence >>> indexShift));
+        if (consumerSleeping) {
+            lock.lock();
+            try {
+                wakeUp.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+        return true;
+    }
+
+    /** Wait until everything published so far has been written to the channel. */
+    public void flush() {
+        long target = claimed.get();
+        while (consumed.get() < target && consumer.isAlive()) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+    }
+
+    /**
+     * Write what is queued and stop the consumer; the channel itself is left
+     * open.  Messages published concurrently with {@code close()} may be lost.
+     */
+    @Override
+    public void close() {
+        running = false;
+        lock.lock();
+        try {
+            wakeUp.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    /** Batches written so far; compare with the number of messages to see the batching. */
+    public long batchCount() {
+        return batches.get();
+    }
+
+    public int capacity() {
+        return events.length;
+    }
+
+    /* ---------------------------------------------------------------- */
+    /* Producer side                                                    */
+    /* ---------------------------------------------------------------- */
+
+    private long claim() {
+        int waits = 0;
+        while (running) {
+            long current = claimed.get();
+            long next = current + 1;
+            long wrapPoint = next - events.length;
+            if (wrapPoint > consumedCache) {
+                long seen = consumed.get();
+                consumedCache = seen;
+                if (wrapPoint > seen) {
+                    if (fullPolicy == FullPolicy.DROP) {
+                        return -1;
+                    }
+                    backOff(waits++);
+                    continue;
+                }
+            }
+            if (claimed.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+        return -1;
+    }
+
+    private static void backOff(int attempt) {
+        if (attempt < SPIN_TRIES) {
+            return;
+        }
+        if (attempt < 2 * SPIN_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+        }
+    }
+
+    /* ---------------------------------------------------------------- */
+    /* Consumer side                                                    */
+    /* ---------------------------------------------------------------- */
+
+    private void consume() {
+        long next = 0;
+        int idle = 0;
+        while (true) {
+            long start = next;
+            // Cap the batch at one lap so producers waiting for space get it back
+            while (next - start < events.length && isPublished(next)) {
+                Event event = events[(int) next & mask];
+                encode(event.message);
+                event.message = null;
+                next++;
+            }
+            if (next > start) {
+                drain();
+                batches.incrementAndGet();
+                consumed.lazySet(next - 1);
+                idle = 0;
+            } else if (!running && next > claimed.get()) {
+                drain();
+                consumed.set(next - 1);
+                return;
+            } else {
+                idle = idle(idle, next);
+            }
+        }
+    }
+
+    private boolean isPublished(long sequence) {
+        return published.get((int) sequence & mask) == (int) (sequence >>> indexShift);
+    }
+
+    private int idle(int idle, long next) {
+        switch (waitStrategy) {
+            case BUSY_SPIN:
+                return idle + 1;
+            case YIELDING:
+                if (idle >= SPIN_TRIES) {
+                    Thread.yield();
+                }
+                return idle + 1;
+            case SLEEPING:
+                if (idle >= SPIN_TRIES) {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+                }
+                return idle + 1;
+            default:
+                lock.lock();
+                try {
+                    consumerSleeping = true;
+                    if (running && !isPublished(next)) {
+                        // Timed, so a signal racing with the flag can only delay, never hang
+                        wakeUp.await(1, TimeUnit.MILLISECONDS);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    consumerSleeping = false;
+                    lock.unlock();
+                }
+                return 0;
+        }
+    }
+
+    // prefix + message + '\n' as UTF-8 straight into the batch buffer; unpaired surrogates become '?'
+    private void encode(String message) {
+        if (buffer.remaining() < prefix.length + 1) {
+            drain();
+        }
+        buffer.put(prefix);
+        String text = message == null ? "null" : message;
+        int i = 0;
+        for (int n = text.length(); i < n && text.charAt(i) < 0x80; i++) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            buffer.put((byte) text.charAt(i));          // ASCII, the common case, copied directly
+        }
+        if (i < text.length()) {
+            CharBuffer chars = CharBuffer.wrap(text, i, text.length());
+            utf8.reset();
+            while (utf8.encode(chars, buffer, true).isOverflow()) {
+                drain();
+            }
+            utf8.flush(buffer);
+        }
+        if (!buffer.hasRemaining()) {
+            drain();
+        }
+        buffer.put((byte) '\n');
+    }
+
+    private void drain() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            System.err.println("[LOG] async write failed: " + e);
+        }
+        buffer.clear();
+    }
+
+    /** Builder with stdout-friendly defaults. */
+    public static final class Builder {
+        private int capacity = 8192;
+        private int bufferSize = 64 * 1024;
+        private WaitStrategy waitStrategy = WaitStrategy.BLOCKING;
+        private FullPolicy fullPolicy = FullPolicy.BLOCK;
+        private String prefix = "Log: ";
+        private WritableByteChannel channel;
+
+        private Builder() {}
+
+        /** Ring slots, rounded up to a power of two. */
+        public Builder capacity(int capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("capacity must be > 0");
+            }
+            this.capacity = capacity;
+            return this;
+        }
+
+        public Builder bufferSize(int bytes) {
+            if (bytes < 64) {
+                throw new IllegalArgumentException("bufferSize must be >= 64");
+            }
+            this.bufferSize = bytes;
+            return this;
+        }
+
+        public Builder waitStrategy(WaitStrategy waitStrategy) {
+            this.waitStrategy = Objects.requireNonNull(waitStrategy);
+            return this;
+        }
+
+        public Builder whenFull(FullPolicy fullPolicy) {
+            this.fullPolicy = Objects.requireNonNull(fullPolicy);
+            return this;
+        }
+
+        /** Written before every message; its UTF-8 form plus the newline must fit in {@code bufferSize}. */
+        public Builder prefix(String prefix) {
+            this.prefix = Objects.requireNonNull(prefix);
+            return this;
+        }
+
+        /** Defaults to standard output, bypassing {@code System.out}'s lock. */
+        public Builder channel(WritableByteChannel channel) {
+            this.channel = Objects.requireNonNull(channel);
+            return this;
+        }
+
+        public AsyncLogWriter build() {
+            if (prefix.getBytes(StandardCharsets.UTF_8).length + 1 > bufferSize) {
+                throw new IllegalArgumentException("prefix does not fit in bufferSize " + bufferSize);
+            }
+            if (channel == null) {
+                channel = Channels.newChannel(new FileOutputStream(FileDescriptor.out));
+            }
+            return new AsyncLogWriter(this);
+        }
+    }
+}
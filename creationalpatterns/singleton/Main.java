@@ -5,5 +5,14 @@ public class Main {
     public static void main(String[] args) {
         Logger logger = Logger.getInstance();
         logger.log("Eager Singleton initialized!");
+
+        // Asynchronous mode: log() only queues the message, a background thread writes it
+        try (AsyncLogWriter writer = AsyncLogWriter.builder().build()) {
+            logger.enableAsync(writer);
+            for (int i = 1; i <= 3; i++) {
+                logger.log("Async message " + i);
+            }
+            logger.enableAsync(null);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,76 @@
+package creationalpatterns.singleton;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark of {@code getInstance()} for every Singleton variant in this
+ * package – eager, lazy (unsynchronised), double-checked locking,
+ * initialization-on-demand holder and enum – with 1 to 64 threads calling it
+ * concurrently.
+ *
+ * <p>Each benchmark returns the instance, so JMH consumes it and the JIT
+ * cannot drop the call.  Scores are calls per microsecond, summed over all
+ * threads.  {@link #main} runs every variant at 1, 2, 4, 8, 16, 32 and 64
+ * threads, or at the counts given as arguments; JMH's own launcher takes one
+ * count with {@code -t}, and {@code -bm sample -tu ns} adds per-call
+ * percentiles:</p>
+ * <pre>
+ *   java -cp &lt;classpath&gt; creationalpatterns.singleton.SingletonBenchmark 1 4 16
+ *   java -cp &lt;classpath&gt; org.openjdk.jmh.Main SingletonBenchmark -t 8
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SingletonBenchmark {
+
+    @Benchmark
+    public Logger eager() {
+        return Logger.getInstance();
+    }
+
+    @Benchmark
+    public creationalpatterns.singleton.lazysingleton.Logger lazy() {
+        return creationalpatterns.singleton.lazysingleton.Logger.getInstance();
+    }
+
+    @Benchmark
+    public creationalpatterns.singleton.threadsafesingleton.Logger doubleChecked() {
+        return creationalpatterns.singleton.threadsafesingleton.Logger.getInstance();
+    }
+
+    @Benchmark
+    public creationalpatterns.singleton.holdersingleton.Logger holder() {
+        return creationalpatterns.singleton.holdersingleton.Logger.getInstance();
+    }
+
+    @Benchmark
+    public creationalpatterns.singleton.enumsingleton.Logger enumConstant() {
+        return creationalpatterns.singleton.enumsingleton.Logger.getInstance();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int[] threadCounts = args.length == 0 ? new int[] {1, 2, 4, 8, 16, 32, 64}
+                : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        for (int threads : threadCounts) {
+            new Runner(new OptionsBuilder()
+                    .include(SingletonBenchmark.class.getName() + "\\.")
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package creationalpatterns.singleton;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Stress test for the race in {@code lazysingleton.Logger}: several threads
+ * call {@code getInstance()} at the same moment on a fresh singleton, over
+ * and over, and every round in which they get back more than one distinct
+ * object is counted as a broken singleton.
+ *
+ * <p>Each round starts new threads and releases them together; see
+ * {@link #runRound}.  Two ways to get a fresh singleton each round:</p>
+ * <ul>
+ *   <li><b>warm</b> – reset the private {@code instance} field to {@code null}
+ *       by reflection.  Only possible for the lazy and double-checked variants;
+ *       this is the mode that catches the lazy race.</li>
+ *   <li><b>cold</b> – load a new copy of the Logger class in its own class
+ *       loader, like the first call after start-up.  Works for every variant,
+ *       including the holder, enum and eager ones the JVM initialises.</li>
+ * </ul>
+ *
+ * <p>Every variant other than the lazy one must never break; the test exits
+ * with status 1 if one does.  Usage: {@code [rounds] [threads]}; cold runs a
+ * tenth of the rounds.</p>
+ */
+public class SingletonRaceStress {
+    private static final String[] VARIANTS = {
+            "creationalpatterns.singleton.lazysingleton.Logger",
+            "creationalpatterns.singleton.threadsafesingleton.Logger",
+            "creationalpatterns.singleton.holdersingleton.Logger",
+            "creationalpatterns.singleton.enumsingleton.Logger",
+            "creationalpatterns.singleton.Logger"
+    };
+    private static final String LAZY = VARIANTS[0];
+
+    public static void main(String[] args) throws Exception {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1])
+                : Math.max(4, Runtime.getRuntime().availableProcessors());
+
+        int lazyBroken = 0;
+        boolean controlBroken = false;
+        for (String variant : VARIANTS) {
+            for (boolean cold : new boolean[] {false, true}) {
+                if (!cold && !hasResettableInstance(variant)) {
+                    continue;
+                }
+                int broken = stress(variant, cold, cold ? Math.max(1, rounds / 10) : rounds, threads);
+                if (variant.equals(LAZY)) {
+                    lazyBroken += broken;
+                } else if (broken > 0) {
+                    controlBroken = true;
+                }
+            }
+        }
+
+        System.out.println(lazyBroken > 0
+                ? "lazysingleton.Logger is not thread-safe: more than one instance in " + lazyBroken + " rounds"
+                : "race not observed this run; try more rounds or more cores");
+        if (controlBroken) {
+            System.out.println("FAILED: a thread-safe variant produced more than one instance");
+            System.exit(1);
+        }
+    }
+
+    private static boolean hasResettableInstance(String variant) throws ClassNotFoundException {
+        try {
+            Field f = Class.forName(variant).getDeclaredField("instance");
+            return !java.lang.reflect.Modifier.isFinal(f.getModifiers());
+        } catch (NoSuchFieldException e) {
+            return false;
+        }
+    }
+
+    /** One round's getInstance(). */
+    private interface Call {
+        Object get() throws Exception;
+    }
+
+    /** Runs the rounds and returns how many of them produced more than one instance. */
+    private static int stress(String variant, boolean cold, int rounds, int threads) throws Exception {
+        Method warmGetInstance = null;
+        Field warmInstance = null;
+        if (!cold) {
+            Class<?> type = Class.forName(variant);
+            warmGetInstance = type.getMethod("getInstance");
+            warmInstance = type.getDeclaredField("instance");
+            warmInstance.setAccessible(true);
+        }
+
+        int broken = 0;
+        Object[] seen = new Object[threads];
+        for (int r = 1; r <= rounds; r++) {
+            Call call;
+            if (cold) {
+                call = invoker(new FreshCopyLoader(variant).loadClass(variant).getMethod("getInstance"));
+            } else {
+                warmInstance.set(null, null);
+                call = invoker(warmGetInstance);
+            }
+            runRound(call, seen);
+            for (int t = 0; t < threads; t++) {
+                if (seen[t] instanceof Exception) {
+                    throw (Exception) seen[t];
+                }
+                if (seen[t] != seen[0]) {
+                    broken++;
+                    break;
+                }
+            }
+        }
+        System.out.printf("%-58s %-5s %7d rounds x %d threads: %d broken%n",
+                variant, cold ? "cold" : "warm", rounds, threads, broken);
+        return broken;
+    }
+
+    /*
+     * New threads every round, released together by a latch.  Threads are still
+     * starting up while the first ones call getInstance(), and released threads
+     * wake each other in a chain, so a waking thread can preempt one that is
+     * already inside getInstance() - which makes the race visible even on one core.
+     */
+    private static void runRound(Call call, Object[] seen) throws InterruptedException {
+        CountDownLatch gate = new CountDownLatch(1);
+        Thread[] workers = new Thread[seen.length];
+        for (int t = 0; t < workers.length; t++) {
+            int id = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    gate.await();
+                    seen[id] = call.get();
+                } catch (Exception e) {
+                    seen[id] = e;
+                }
+            });
+            workers[t].start();
+        }
+        gate.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    private static Call invoker(Method getInstance) {
+        return () -> {
+            try {
+                return getInstance.invoke(null);
+            } catch (InvocationTargetException e) {
+                throw (Exception) e.getCause();
+            }
+        };
+    }
+
+    /** Defines its own copy of one class and its nested classes, so their statics start fresh. */
+    private static final class FreshCopyLoader extends ClassLoader {
+        private final String root;
+
+        FreshCopyLoader(String root) {
+            super(SingletonRaceStress.class.getClassLoader());
+            this.root = root;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(root) && !name.startsWith(root + "$")) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> c = findLoadedClass(name);
+                if (c == null) {
+                    byte[] bytes = classBytes(name);
+                    c = defineClass(name, bytes, 0, bytes.length);
+                }
+                return c;
+            }
+        }
+
+        private byte[] classBytes(String name) throws ClassNotFoundException {
+            try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                if (in == null) {
+                    throw new ClassNotFoundException(name);
+                }
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] chunk = new byte[4096];
+                for (int n; (n = in.read(chunk)) > 0; ) {
+                    out.write(chunk, 0, n);
+                }
+                return out.toByteArray();
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+        }
+    }
+}
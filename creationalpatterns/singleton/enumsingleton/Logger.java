@@ -0,0 +1,40 @@
+package creationalpatterns.singleton.enumsingleton;
+
+import creationalpatterns.singleton.AsyncLogWriter;
+
+/**
+ * Logger class implementing Singleton as a single-element enum.
+ * Advantages:
+
+Thread-safe, and the JVM guarantees one instance even against
+reflection and serialization.
+Disadvantage:
+
+Created when the enum is first used and cannot extend another class.
+ */
+public enum Logger {
+    INSTANCE;
+
+    // Public method to provide access to the single instance
+    public static Logger getInstance() {
+        return INSTANCE;
+    }
+
+    // Asynchronous backend; null means every call prints synchronously
+    private volatile AsyncLogWriter async;
+
+    // Switch to asynchronous logging, or back to synchronous with null
+    public void enableAsync(AsyncLogWriter writer) {
+        this.async = writer;
+    }
+
+    // Example method to log a message
+    public void log(String message) {
+        AsyncLogWriter writer = async;
+        if (writer != null) {
+            writer.publish(message);
+            return;
+        }
+        System.out.println("Log: " + message);
+    }
+}
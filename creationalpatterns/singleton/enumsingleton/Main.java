@@ -0,0 +1,9 @@
+package creationalpatterns.singleton.enumsingleton;
+
+// Usage
+public class Main {
+    public static void main(String[] args) {
+        Logger logger = Logger.INSTANCE;
+        logger.log("Enum Singleton initialized!");
+    }
+}
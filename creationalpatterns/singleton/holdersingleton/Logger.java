@@ -0,0 +1,46 @@
+package creationalpatterns.singleton.holdersingleton;
+
+import creationalpatterns.singleton.AsyncLogWriter;
+
+/**
+ * Logger class implementing Singleton using the initialization-on-demand holder idiom.
+ * Advantages:
+
+Lazy and thread-safe without locks or volatile reads: the JVM initializes
+the nested Holder class once, on the first call to getInstance().
+Disadvantage:
+
+A failure in the constructor leaves the class unusable (NoClassDefFoundError on later calls).
+ */
+public class Logger {
+    // Private constructor to restrict instantiation
+    private Logger() {}
+
+    // Loaded and initialized only when getInstance() first touches it
+    private static class Holder {
+        private static final Logger INSTANCE = new Logger();
+    }
+
+    // Public method to provide access to the single instance
+    public static Logger getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    // Asynchronous backend; null means every call prints synchronously
+    private volatile AsyncLogWriter async;
+
+    // Switch to asynchronous logging, or back to synchronous with null
+    public void enableAsync(AsyncLogWriter writer) {
+        this.async = writer;
+    }
+
+    // Example method to log a message
+    public void log(String message) {
+        AsyncLogWriter writer = async;
+        if (writer != null) {
+            writer.publish(message);
+            return;
+        }
+        System.out.println("Log: " + message);
+    }
+}
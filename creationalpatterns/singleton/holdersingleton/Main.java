@@ -0,0 +1,9 @@
+package creationalpatterns.singleton.holdersingleton;
+
+// Usage
+public class Main {
+    public static void main(String[] args) {
+        Logger logger = Logger.getInstance();
+        logger.log("Holder Singleton initialized!");
+    }
+}
@@ -1,5 +1,7 @@
 package creationalpatterns.singleton.threadsafesingleton;
 
+import creationalpatterns.singleton.AsyncLogWriter;
+
 /**
  * Logger class implementing Singleton using thread safety.
  * Advantages:
@@ -28,8 +30,21 @@ public class Logger {
         return instance;
     }
 
+    // Asynchronous backend; null means every call prints synchronously
+    private volatile AsyncLogWriter async;
+
+    // Switch to asynchronous logging, or back to synchronous with null
+    public void enableAsync(AsyncLogWriter writer) {
+        this.async = writer;
+    }
+
     // Example method to log a message
     public void log(String message) {
+        AsyncLogWriter writer = async;
+        if (writer != null) {
+            writer.publish(message);
+            return;
+        }
         System.out.println("Log: " + message);
     }
 }
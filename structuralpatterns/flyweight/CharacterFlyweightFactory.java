@@ -1,19 +1,135 @@
 package structuralpatterns.flyweight;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Flyweight Factory for creating and managing character styles.
+ *
+ * <p>Thread-safe, and a lookup of an existing style allocates nothing:</p>
+ * <ul>
+ *   <li>Styles are keyed by font, size and color as separate fields, so
+ *       ("Arial1", 2, "red") and ("Arial", 12, "red") can never collide the
+ *       way a concatenated string key does.</li>
+ *   <li>Each thread looks up with its own reusable probe key; a real key is
+ *       created only when a style is missing, and the style is then added by
+ *       one atomic {@code computeIfAbsent}, so concurrent callers always get
+ *       the same instance.</li>
+ *   <li>With {@code weakStyles}, the factory holds styles through weak
+ *       references: a style nobody uses any more is garbage collected and its
+ *       entry removed, and it is created afresh if it is needed again.</li>
+ * </ul>
  */
 public class CharacterFlyweightFactory {
-    private final Map<String, CharacterFlyweight> flyweights = new HashMap<>();
+    private final ConcurrentHashMap<StyleKey, CharacterStyle> styles;
+    private final ConcurrentHashMap<StyleKey, StyleRef> weakStyles;
+    private final ReferenceQueue<CharacterStyle> collected;
+    private final ThreadLocal<StyleKey> probe = ThreadLocal.withInitial(StyleKey::new);
+
+    public CharacterFlyweightFactory() {
+        this(false);
+    }
+
+    /**
+     * @param weakStyles Release styles that are no longer referenced outside the factory.
+     */
+    public CharacterFlyweightFactory(boolean weakStyles) {
+        this.styles = weakStyles ? null : new ConcurrentHashMap<>();
+        this.weakStyles = weakStyles ? new ConcurrentHashMap<>() : null;
+        this.collected = weakStyles ? new ReferenceQueue<>() : null;
+    }
 
     public CharacterFlyweight getFlyweight(String font, int size, String color) {
-        String key = font + size + color;
-        if (!flyweights.containsKey(key)) {
-            flyweights.put(key, new CharacterStyle(font, size, color));
+        StyleKey key = probe.get().set(font, size, color);
+        if (styles != null) {
+            CharacterStyle style = styles.get(key);
+            if (style == null) {
+                style = styles.computeIfAbsent(key.copy(), k -> new CharacterStyle(font, size, color));
+            }
+            return style;
+        }
+        StyleRef ref = weakStyles.get(key);
+        CharacterStyle style = ref == null ? null : ref.get();
+        return style != null ? style : createWeak(key.copy());
+    }
+
+    /** Number of styles currently held. */
+    public int size() {
+        if (styles != null) {
+            return styles.size();
+        }
+        expungeCollected();
+        return weakStyles.size();
+    }
+
+    private CharacterStyle createWeak(StyleKey key) {
+        expungeCollected();
+        CharacterStyle[] result = new CharacterStyle[1];
+        weakStyles.compute(key, (k, old) -> {
+            CharacterStyle live = old == null ? null : old.get();
+            if (live == null) {
+                live = new CharacterStyle(k.font, k.size, k.color);
+                old = new StyleRef(k, live, collected);
+            }
+            result[0] = live;                        // held strongly until we return it
+            return old;
+        });
+        return result[0];
+    }
+
+    private void expungeCollected() {
+        for (Object ref; (ref = collected.poll()) != null; ) {
+            StyleRef stale = (StyleRef) ref;
+            weakStyles.remove(stale.key, stale);     // only if not already replaced
+        }
+    }
+
+    /** Composite key; the per-thread probe instance is mutated, stored keys never are. */
+    private static final class StyleKey {
+        String font;
+        int size;
+        String color;
+        int hash;
+
+        StyleKey set(String font, int size, String color) {
+            this.font = font;
+            this.size = size;
+            this.color = color;
+            this.hash = (31 * Objects.hashCode(font) + size) * 31 + Objects.hashCode(color);
+            return this;
+        }
+
+        StyleKey copy() {
+            return new StyleKey().set(font, size, color);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof StyleKey)) {
+                return false;
+            }
+            StyleKey other = (StyleKey) o;
+            return hash == other.hash && size == other.size
+                    && Objects.equals(font, other.font) && Objects.equals(color, other.color);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class StyleRef extends WeakReference<CharacterStyle> {
+        final StyleKey key;
+
+        StyleRef(StyleKey key, CharacterStyle style, ReferenceQueue<CharacterStyle> queue) {
+            super(style, queue);
+            this.key = key;
         }
-        return flyweights.get(key);
     }
 }
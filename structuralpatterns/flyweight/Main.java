@@ -13,5 +13,10 @@ public class Main {
         style1.display(new CharacterExtrinsicState('A', 10, 20));
         style1.display(new CharacterExtrinsicState('B', 15, 25));
         style2.display(new CharacterExtrinsicState('C', 30, 40));
+
+        // Same font, size and color: the same shared instance
+        System.out.println("Shared: " + (style1 == factory.getFlyweight("Arial", 12, "Black")));
+        // Would collide under a concatenated "font + size + color" key
+        System.out.println("Distinct: " + (factory.getFlyweight("Arial1", 2, "red") != factory.getFlyweight("Arial", 12, "red")));
     }
 }
\ No newline at end of file